@@ -2,24 +2,49 @@ package de.gnmyt.mcdash;
 
 import com.sun.net.httpserver.HttpServer;
 import de.gnmyt.mcdash.api.config.*;
+import de.gnmyt.mcdash.api.backup.BackupJobManager;
 import de.gnmyt.mcdash.api.controller.BackupController;
+import de.gnmyt.mcdash.api.controller.ConsoleController;
+import de.gnmyt.mcdash.api.controller.SessionController;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.handler.RouteRegistry;
+import de.gnmyt.mcdash.api.handler.SlowRequestLog;
 import de.gnmyt.mcdash.api.handler.StaticHandler;
+import de.gnmyt.mcdash.api.http.HttpExecutor;
+import de.gnmyt.mcdash.api.metrics.MetricsStore;
+import de.gnmyt.mcdash.api.tasks.ConsoleTailer;
+import de.gnmyt.mcdash.api.tasks.DiskUsageTracker;
+import de.gnmyt.mcdash.api.tasks.MetricsSampler;
+import de.gnmyt.mcdash.api.tasks.TickProfiler;
 import de.gnmyt.mcdash.commands.PasswordCommand;
+import de.gnmyt.mcdash.processor.RouteIndexProcessor;
 import org.bukkit.Bukkit;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.reflections.Reflections;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class MinecraftDashboard extends JavaPlugin {
 
     private static final ScheduledExecutorService executor = Executors.newScheduledThreadPool(4);
     private static ConfigurationManager config;
     private static BackupController backupController;
+    private static SessionController sessionController;
+    private static BackupJobManager backupJobManager;
+    private static ConsoleController consoleController;
+    private static ConsoleTailer consoleTailer;
+    private static DiskUsageTracker diskUsageTracker;
+    private static TickProfiler tickProfiler;
+    private static MetricsStore metricsStore;
+    private static MetricsSampler metricsSampler;
     private static UpdateManager updateManager;
     private static AccountManager accountManager;
     private static BackupManager backupManager;
@@ -28,10 +53,15 @@ public class MinecraftDashboard extends JavaPlugin {
     private static ScheduleManager scheduleManager;
     private static MinecraftDashboard instance;
     private static HttpServer server;
+    private static HttpExecutor httpExecutor;
+    private static RouteRegistry routeRegistry;
+    private static SlowRequestLog slowRequestLog;
 
     @Override
     public void onEnable() {
         instance = this;
+        tickProfiler = new TickProfiler();
+        tickProfiler.start(this);
         executor.submit(() -> initializePlugin());
     }
 
@@ -42,13 +72,29 @@ public class MinecraftDashboard extends JavaPlugin {
         sshManager = new SSHManager(instance);
         worldManager = new WorldManager(instance);
         config = new ConfigurationManager(instance);
+        sessionController = new SessionController(accountManager, config);
         backupController = new BackupController();
+        backupJobManager = new BackupJobManager(backupController, backupManager.getParallelJobs(),
+                backupManager.getQueuedJobs(), backupManager.getIoLimit(), getLogger());
+        consoleController = new ConsoleController();
+        consoleTailer = new ConsoleTailer(consoleController);
+        executor.scheduleWithFixedDelay(consoleTailer, 250, 250, TimeUnit.MILLISECONDS);
+        diskUsageTracker = new DiskUsageTracker(new File("."), getLogger());
+        diskUsageTracker.start();
+        metricsStore = new MetricsStore(new File(getDataFolder(), "metrics.dat"), getLogger());
+        metricsSampler = new MetricsSampler(metricsStore, tickProfiler);
+        Bukkit.getScheduler().scheduleSyncRepeatingTask(instance, metricsSampler,
+                MetricsSampler.INTERVAL, MetricsSampler.INTERVAL);
+        executor.scheduleWithFixedDelay(metricsStore::save, 5, 5, TimeUnit.MINUTES);
         scheduleManager = new ScheduleManager(instance);
         if (!config.configExists()) config.generateDefault();
 
         try {
+            httpExecutor = new HttpExecutor(config, getLogger());
+            slowRequestLog = new SlowRequestLog(config.getSlowRequestThreshold(), getLogger());
             server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
-            server.setExecutor(Executors.newCachedThreadPool());
+            server.setExecutor(null);
+            routeRegistry = new RouteRegistry(server);
             server.start();
         } catch (IOException e) {
             disablePlugin("Could not open the port for the web server: " + e.getMessage());
@@ -63,7 +109,13 @@ public class MinecraftDashboard extends JavaPlugin {
     @Override
     public void onDisable() {
         if (server != null) server.stop(0);
+        if (httpExecutor != null) httpExecutor.shutdown();
         if (updateManager != null) updateManager.shutdownScheduler();
+        if (consoleTailer != null) consoleTailer.shutdown();
+        if (diskUsageTracker != null) diskUsageTracker.shutdown();
+        if (backupJobManager != null) backupJobManager.shutdown();
+        if (backupController != null) backupController.shutdown();
+        if (metricsStore != null) metricsStore.save();
         server = null;
     }
 
@@ -80,16 +132,36 @@ public class MinecraftDashboard extends JavaPlugin {
 
     /**
      * Registers all routes in the {@link de.gnmyt.mcdash.panel.routes} package
+     * The routes are read from the index that gets generated by the {@link RouteIndexProcessor} at compile time
      */
     public void registerRoutes() {
-        Reflections reflections = new Reflections(getRoutePackageName());
-        reflections.getSubTypesOf(DefaultHandler.class).forEach(clazz -> {
-            try {
-                clazz.getDeclaredConstructor().newInstance().register();
-            } catch (Exception ignored) { }
-        });
-    }
+        long startTime = System.nanoTime();
+        int registered = 0;
+
+        InputStream index = getResource(RouteIndexProcessor.INDEX_FILE);
+        if (index == null) {
+            getLogger().warning("Could not find the route index, the api will not be available");
+            return;
+        }
 
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index, StandardCharsets.UTF_8))) {
+            String className;
+            while ((className = reader.readLine()) != null) {
+                if (className.trim().isEmpty()) continue;
+
+                try {
+                    Class.forName(className.trim(), true, getClassLoader()).asSubclass(DefaultHandler.class)
+                            .getDeclaredConstructor().newInstance().register();
+                    registered++;
+                } catch (Exception ignored) { }
+            }
+        } catch (IOException e) {
+            getLogger().warning("Could not read the route index: " + e.getMessage());
+        }
+
+        getLogger().info("Registered " + registered + " routes in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+    }
 
     /**
      * Disables the plugin
@@ -125,6 +197,30 @@ public class MinecraftDashboard extends JavaPlugin {
     }
 
 
+    /**
+     * Gets the executor the http requests are handled in
+     * @return the http executor
+     */
+    public static HttpExecutor getHttpExecutor() {
+        return httpExecutor;
+    }
+
+    /**
+     * Gets the registry of all api routes
+     * @return the route registry
+     */
+    public static RouteRegistry getRouteRegistry() {
+        return routeRegistry;
+    }
+
+    /**
+     * Gets the log of slow api requests
+     * @return the slow request log
+     */
+    public static SlowRequestLog getSlowRequestLog() {
+        return slowRequestLog;
+    }
+
     /**
      * Gets the name of the route package
      * @return the name of the route package
@@ -157,6 +253,46 @@ public class MinecraftDashboard extends JavaPlugin {
         return sshManager;
     }
 
+    /**
+     * Gets the disk usage tracker
+     * @return the disk usage tracker
+     */
+    public static DiskUsageTracker getDiskUsageTracker() {
+        return diskUsageTracker;
+    }
+
+    /**
+     * Gets the tick profiler
+     * @return the tick profiler
+     */
+    public static TickProfiler getTickProfiler() {
+        return tickProfiler;
+    }
+
+    /**
+     * Gets the metrics store
+     * @return the metrics store
+     */
+    public static MetricsStore getMetricsStore() {
+        return metricsStore;
+    }
+
+    /**
+     * Gets the metrics sampler
+     * @return the metrics sampler
+     */
+    public static MetricsSampler getMetricsSampler() {
+        return metricsSampler;
+    }
+
+    /**
+     * Gets the session controller
+     * @return the session controller
+     */
+    public static SessionController getSessionController() {
+        return sessionController;
+    }
+
     /**
      * Gets the backup manager
      * @return the backup manager
@@ -173,6 +309,30 @@ public class MinecraftDashboard extends JavaPlugin {
         return backupController;
     }
 
+    /**
+     * Gets the backup job manager
+     * @return the backup job manager
+     */
+    public static BackupJobManager getBackupJobManager() {
+        return backupJobManager;
+    }
+
+    /**
+     * Gets the console controller
+     * @return the console controller
+     */
+    public static ConsoleController getConsoleController() {
+        return consoleController;
+    }
+
+    /**
+     * Gets the console tailer
+     * @return the console tailer
+     */
+    public static ConsoleTailer getConsoleTailer() {
+        return consoleTailer;
+    }
+
     /**
      * Gets the world manager
      * @return the world manager
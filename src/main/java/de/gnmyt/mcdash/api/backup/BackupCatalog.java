@@ -0,0 +1,343 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupFormat;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Logger;
+
+public class BackupCatalog implements Closeable {
+
+    private static final int MAGIC = 0x4D434243;
+    private static final int VERSION = 1;
+
+    private final File backupFolder;
+    private final File file;
+    private final Logger logger;
+    private final Map<String, BackupInfo> backups = new ConcurrentSkipListMap<>();
+
+    private WatchService watchService;
+
+    /**
+     * Basic constructor of the {@link BackupCatalog}
+     * Loads the catalog from the disk, catalogs all new backups and starts watching the backup folder
+     * @param backupFolder The folder the backups are stored in
+     * @param file The file the catalog is stored in
+     * @param logger The logger problems with the catalog get reported to
+     */
+    public BackupCatalog(File backupFolder, File file, Logger logger) {
+        this.backupFolder = backupFolder;
+        this.file = file;
+        this.logger = logger;
+
+        Map<String, BackupInfo> stored = new HashMap<>();
+        if (file.exists()) {
+            try {
+                stored = load();
+            } catch (IOException e) {
+                logger.warning("Could not load the backup catalog, all backups will be cataloged again");
+            }
+        }
+
+        refresh(stored);
+        watch();
+    }
+
+    /**
+     * Gets a backup
+     * @param id The id (time code) of the backup
+     * @return the backup or <code>null</code> if no backup with this id exists
+     */
+    public BackupInfo get(String id) {
+        return backups.get(id);
+    }
+
+    /**
+     * Gets all backups
+     * @return all backups, sorted by their id
+     */
+    public List<BackupInfo> getBackups() {
+        return new ArrayList<>(backups.values());
+    }
+
+    /**
+     * Adds a new backup to the catalog
+     * @param backup The backup file
+     * @param checksum The SHA-256 checksum of the backup file (<code>null</code> if it is unknown)
+     * @return the cataloged backup
+     * @throws IOException An exception that will be thrown if the backup could not be read
+     */
+    public BackupInfo add(File backup, String checksum) throws IOException {
+        BackupInfo info = create(backup, checksum);
+        backups.put(info.getId(), info);
+        save();
+        return info;
+    }
+
+    /**
+     * Removes a backup from the catalog
+     * @param backup The backup file
+     */
+    public void remove(File backup) {
+        if (removeEntry(backup)) save();
+    }
+
+    /**
+     * Scans the backup folder and updates the catalog. Backups that have not changed keep their checksum
+     */
+    public void refresh() {
+        Map<String, BackupInfo> known = new HashMap<>();
+        for (BackupInfo info : backups.values()) known.put(info.getFile().getName(), info);
+        refresh(known);
+    }
+
+    /**
+     * Scans the backup folder and replaces the catalog
+     * @param known All backups that have been cataloged before, mapped by their file name
+     */
+    private synchronized void refresh(Map<String, BackupInfo> known) {
+        File[] files = backupFolder.listFiles(current -> current.isFile() && BackupInfo.isBackup(current));
+        Map<String, BackupInfo> current = new HashMap<>();
+
+        for (File backup : files != null ? files : new File[0]) {
+            BackupInfo info = known.get(backup.getName());
+            try {
+                if (info == null || !info.matches(backup)) info = create(backup, null);
+            } catch (IOException e) {
+                logger.warning("Could not catalog the backup " + backup.getName() + ": " + e.getMessage());
+                continue;
+            }
+            current.put(info.getId(), info);
+        }
+
+        backups.keySet().retainAll(current.keySet());
+        backups.putAll(current);
+        save();
+    }
+
+    /**
+     * Creates the catalog entry of a backup
+     * @param backup The backup file
+     * @param checksum The SHA-256 checksum of the backup file (<code>null</code> if it is unknown)
+     * @return the catalog entry
+     * @throws IOException An exception that will be thrown if the snapshot could not be read
+     */
+    private BackupInfo create(File backup, String checksum) throws IOException {
+        long size = BackupFormat.fromFileName(backup.getName()) == BackupFormat.SNAPSHOT
+                ? SnapshotManifest.read(backup).getTotalSize() : backup.length();
+
+        return new BackupInfo(backup, backup.length(), backup.lastModified(), size, checksum);
+    }
+
+    /**
+     * Updates the catalog entry of a backup that has been changed outside of the dashboard
+     * @param backup The backup file
+     * @return <code>true</code> if the catalog has been changed, otherwise <code>false</code>
+     */
+    private boolean update(File backup) {
+        BackupInfo info = backups.get(getId(backup));
+        if (info != null && info.getFile().getName().equals(backup.getName()) && info.matches(backup)) return false;
+
+        BackupInfo created;
+        try {
+            created = create(backup, null);
+        } catch (IOException e) {
+            return false;
+        }
+
+        backups.compute(created.getId(), (id, current) -> current != null
+                && current.getFile().getName().equals(backup.getName()) && current.matches(backup) ? current : created);
+        return true;
+    }
+
+    /**
+     * Removes the catalog entry of a backup
+     * @param backup The backup file
+     * @return <code>true</code> if the catalog has been changed, otherwise <code>false</code>
+     */
+    private boolean removeEntry(File backup) {
+        if (!BackupInfo.isBackup(backup)) return false;
+
+        BackupInfo info = backups.get(getId(backup));
+        return info != null && info.getFile().getName().equals(backup.getName()) && backups.remove(info.getId(), info);
+    }
+
+    /**
+     * Gets the id of a backup from its file name
+     * @param backup The backup file
+     * @return the id (time code) of the backup
+     */
+    private static String getId(File backup) {
+        return BackupFormat.stripExtension(backup.getName()).split("-")[0];
+    }
+
+    /**
+     * Starts watching the backup folder, so backups that are copied or deleted by hand show up in the catalog
+     */
+    private void watch() {
+        try {
+            watchService = backupFolder.toPath().getFileSystem().newWatchService();
+            backupFolder.toPath().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.warning("Could not watch the backup folder, changes made by hand will not show up in the backup list");
+            return;
+        }
+
+        Thread watcher = new Thread(this::processEvents, "MCDash-BackupCatalog");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Processes the events of the watch service until it gets closed
+     */
+    private void processEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            boolean overflow = false, changed = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                    continue;
+                }
+
+                File backup = new File(backupFolder, ((Path) event.context()).toString());
+                if (!BackupInfo.isBackup(backup)) continue;
+
+                changed |= backup.isFile() ? update(backup) : removeEntry(backup);
+            }
+
+            if (overflow) {
+                refresh();
+            } else if (changed) save();
+
+            if (!key.reset()) return;
+        }
+    }
+
+    /**
+     * Loads the catalog from the disk
+     * @return all stored backups, mapped by their file name
+     * @throws IOException An exception that will be thrown if the catalog could not be read
+     */
+    private Map<String, BackupInfo> load() throws IOException {
+        Map<String, BackupInfo> stored = new HashMap<>();
+
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION)
+                throw new IOException("Invalid backup catalog");
+
+            int count = inputStream.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = inputStream.readUTF();
+                long length = inputStream.readLong();
+                long lastModified = inputStream.readLong();
+                long size = inputStream.readLong();
+                String checksum = inputStream.readUTF();
+
+                File backup = new File(backupFolder, name);
+                if (BackupInfo.isBackup(backup))
+                    stored.put(name, new BackupInfo(backup, length, lastModified, size, checksum.isEmpty() ? null : checksum));
+            }
+        }
+
+        return stored;
+    }
+
+    /**
+     * Saves the catalog to the disk
+     */
+    private synchronized void save() {
+        Path tempFile = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        try {
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                List<BackupInfo> infos = getBackups();
+
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                outputStream.writeInt(infos.size());
+
+                for (BackupInfo info : infos) {
+                    outputStream.writeUTF(info.getFile().getName());
+                    outputStream.writeLong(info.getLength());
+                    outputStream.writeLong(info.getLastModified());
+                    outputStream.writeLong(info.getSize());
+                    outputStream.writeUTF(info.getChecksum() != null ? info.getChecksum() : "");
+                }
+            }
+
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not save the backup catalog: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stops watching the backup folder
+     * @throws IOException An exception that will be thrown if the watch service could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) watchService.close();
+    }
+
+    /**
+     * Calculates the SHA-256 checksum of a file
+     * @param file The file
+     * @return the checksum as a hex string
+     * @throws IOException An exception that will be thrown if the file could not be read
+     */
+    public static String checksum(File file) throws IOException {
+        MessageDigest digest = newDigest();
+
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            byte[] buffer = new byte[256 * 1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) digest.update(buffer, 0, read);
+        }
+
+        return ChunkStore.toHex(digest.digest());
+    }
+
+    /**
+     * Creates a new SHA-256 digest
+     * @return the digest
+     */
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
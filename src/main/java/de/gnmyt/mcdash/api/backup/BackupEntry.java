@@ -0,0 +1,109 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BackupEntry {
+
+    private final String name;
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+
+    /**
+     * Basic constructor of the {@link BackupEntry}
+     * @param name The name of the file inside the backup
+     * @param path The path of the file on the disk
+     * @param size The size of the file
+     * @param lastModified The last modification time of the file
+     */
+    public BackupEntry(String name, Path path, long size, long lastModified) {
+        this.name = name;
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Collects all files that should be part of a backup. The backup folder is always skipped
+     * @param backupFolder The folder the backups are stored in
+     * @param paths The files and folders that should be backed up
+     * @return all files that should be part of the backup
+     * @throws IOException An exception that will be thrown if a folder could not be walked
+     */
+    public static List<BackupEntry> collect(File backupFolder, File... paths) throws IOException {
+        Path excluded = backupFolder.toPath().toAbsolutePath().normalize();
+        List<BackupEntry> entries = new ArrayList<>();
+
+        for (File file : paths) {
+            if (!file.exists()) continue;
+
+            Path root = file.toPath();
+            String rootName = file.getName();
+
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    return dir.toAbsolutePath().normalize().equals(excluded) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path current, BasicFileAttributes attrs) {
+                    if (!attrs.isRegularFile()) return FileVisitResult.CONTINUE;
+
+                    String name = current.equals(root) ? rootName
+                            : rootName + "/" + root.relativize(current).toString().replace(File.separatorChar, '/');
+
+                    entries.add(new BackupEntry(name, current, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path current, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        return entries;
+    }
+
+    /**
+     * Gets the name of the file inside the backup
+     * @return the name of the file inside the backup
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the path of the file on the disk
+     * @return the path of the file on the disk
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the size of the file
+     * @return the size of the file
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the last modification time of the file
+     * @return the last modification time of the file
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
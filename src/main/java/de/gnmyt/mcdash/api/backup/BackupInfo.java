@@ -0,0 +1,121 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupFormat;
+
+import java.io.File;
+
+public class BackupInfo {
+
+    private final File file;
+    private final String id;
+    private final String modes;
+    private final BackupFormat format;
+    private final long length;
+    private final long lastModified;
+    private final long size;
+    private final String checksum;
+
+    /**
+     * Basic constructor of the {@link BackupInfo}
+     * @param file The backup file
+     * @param length The length of the backup file when it has been cataloged
+     * @param lastModified The last modification time of the backup file when it has been cataloged
+     * @param size The size of the backup (the total size of all files for snapshots)
+     * @param checksum The SHA-256 checksum of the backup file (<code>null</code> if it is unknown)
+     */
+    public BackupInfo(File file, long length, long lastModified, long size, String checksum) {
+        String name = BackupFormat.stripExtension(file.getName());
+
+        this.file = file;
+        this.id = name.substring(0, name.indexOf('-'));
+        this.modes = name.substring(name.indexOf('-') + 1);
+        this.format = BackupFormat.fromFileName(file.getName());
+        this.length = length;
+        this.lastModified = lastModified;
+        this.size = size;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Checks if the name of a file matches the naming scheme of the backups (<code>time-modes.extension</code>)
+     * @param file The file that should be checked
+     * @return <code>true</code> if the file is a backup, otherwise <code>false</code>
+     */
+    public static boolean isBackup(File file) {
+        if (BackupFormat.fromFileName(file.getName()) == null) return false;
+        return BackupFormat.stripExtension(file.getName()).matches("\\d+-\\d+");
+    }
+
+    /**
+     * Checks if the backup file has not been changed since it has been cataloged
+     * @param file The current backup file
+     * @return <code>true</code> if the backup file is unchanged, otherwise <code>false</code>
+     */
+    public boolean matches(File file) {
+        return file.length() == length && file.lastModified() == lastModified;
+    }
+
+    /**
+     * Gets the backup file
+     * @return the backup file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the id (time code) of the backup
+     * @return the id of the backup
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the modes of the backup
+     * @return the modes of the backup (e.g. <code>124</code>)
+     */
+    public String getModes() {
+        return modes;
+    }
+
+    /**
+     * Gets the format of the backup
+     * @return the format of the backup
+     */
+    public BackupFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the length of the backup file
+     * @return the length of the backup file
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Gets the last modification time of the backup file
+     * @return the last modification time of the backup file
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the size of the backup. The size of a snapshot is the total size of all files it contains
+     * @return the size of the backup
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the SHA-256 checksum of the backup file
+     * @return the checksum of the backup file or <code>null</code> if it is unknown
+     */
+    public String getChecksum() {
+        return checksum;
+    }
+}
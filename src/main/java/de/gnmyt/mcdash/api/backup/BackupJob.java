@@ -0,0 +1,312 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupJobState;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BackupJob {
+
+    private final long id;
+    private final String modes;
+    private final IoThrottle throttle;
+    private final long createdAt = System.currentTimeMillis();
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private final AtomicInteger processedFiles = new AtomicInteger();
+    private final AtomicLong processedBytes = new AtomicLong();
+    private final AtomicLong stagedBytes = new AtomicLong();
+    private final AtomicReference<BackupJobState> state = new AtomicReference<>(BackupJobState.QUEUED);
+
+    private volatile boolean cancelled;
+    private volatile int totalFiles;
+    private volatile long totalBytes;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+
+    /**
+     * Basic constructor of the {@link BackupJob}
+     * @param id The id of the job
+     * @param modes The modes of the backup
+     * @param throttle The throttle all files of the backup are read through
+     */
+    public BackupJob(long id, String modes, IoThrottle throttle) {
+        this.id = id;
+        this.modes = modes;
+        this.throttle = throttle;
+    }
+
+    /**
+     * Sets the amount of files and bytes the backup contains
+     * @param files The amount of files
+     * @param bytes The total size of all files
+     */
+    public void setTotal(int files, long bytes) {
+        this.totalFiles = files;
+        this.totalBytes = bytes;
+    }
+
+    /**
+     * Wraps the stream of a file that gets backed up. Reading from the stream is throttled and updates the progress,
+     * the file counts as processed once the stream has been closed
+     * @param inputStream The stream of the file
+     * @return the tracked stream
+     */
+    public InputStream track(InputStream inputStream) {
+        return new TrackedInputStream(inputStream, processedBytes, processedFiles);
+    }
+
+    /**
+     * Wraps a stream that gets read by the backup without updating the progress (e.g. data copied from a previous backup)
+     * @param inputStream The stream
+     * @return the throttled stream
+     */
+    public InputStream throttle(InputStream inputStream) {
+        return new TrackedInputStream(inputStream, null, null);
+    }
+
+    /**
+     * Wraps the stream of a file that gets copied into the staging folder before the backup is written.
+     * Reading from the stream is throttled and updates the amount of staged bytes
+     * @param inputStream The stream of the file
+     * @return the tracked stream
+     */
+    public InputStream stage(InputStream inputStream) {
+        return new TrackedInputStream(inputStream, stagedBytes, null);
+    }
+
+    /**
+     * Marks a file as processed that has not been read through a tracked stream
+     * (e.g. because it has not changed since the previous backup)
+     * @param bytes The size of the file
+     */
+    public void addProcessed(long bytes) {
+        processedBytes.addAndGet(bytes);
+        processedFiles.incrementAndGet();
+    }
+
+    /**
+     * Throws an exception if the job has been cancelled
+     * @throws InterruptedIOException An exception that will be thrown if the job has been cancelled
+     */
+    public void checkCancelled() throws InterruptedIOException {
+        if (cancelled) throw new InterruptedIOException("The backup has been cancelled");
+    }
+
+    /**
+     * Requests the cancellation of the job. A running backup stops at the next read and deletes its partial files
+     * @return <code>true</code> if the job has not finished yet, otherwise <code>false</code>
+     */
+    public boolean cancel() {
+        if (state.get().isFinished()) return false;
+        cancelled = true;
+        return true;
+    }
+
+    /**
+     * Marks the job as running, unless it has already left the queue (e.g. because it has been cancelled)
+     * @return <code>true</code> if the job has been started, otherwise <code>false</code>
+     */
+    boolean start() {
+        long now = System.currentTimeMillis();
+        if (!state.compareAndSet(BackupJobState.QUEUED, BackupJobState.RUNNING)) return false;
+
+        startedAt = now;
+        return true;
+    }
+
+    /**
+     * Marks the job as finished, if it still is in the expected state. Only one caller can finish a job
+     * @param expected The state the job is expected to be in
+     * @param state The final state of the job
+     * @param error The error message (<code>null</code> if the job did not fail)
+     * @return <code>true</code> if the job has been finished by this call, otherwise <code>false</code>
+     */
+    boolean finish(BackupJobState expected, BackupJobState state, String error) {
+        long now = System.currentTimeMillis();
+        if (!this.state.compareAndSet(expected, state)) return false;
+
+        this.error = error;
+        this.finishedAt = now;
+        finished.countDown();
+        return true;
+    }
+
+    /**
+     * Waits until the job has finished
+     * @throws InterruptedException An exception that will be thrown if the current thread has been interrupted
+     */
+    public void await() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Checks if the cancellation of the job has been requested
+     * @return <code>true</code> if the job has been cancelled, otherwise <code>false</code>
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the id of the job
+     * @return the id of the job
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the modes of the backup
+     * @return the modes of the backup
+     */
+    public String getModes() {
+        return modes;
+    }
+
+    /**
+     * Gets the state of the job
+     * @return the state of the job
+     */
+    public BackupJobState getState() {
+        return state.get();
+    }
+
+    /**
+     * Gets the amount of processed files
+     * @return the amount of processed files
+     */
+    public int getProcessedFiles() {
+        return processedFiles.get();
+    }
+
+    /**
+     * Gets the amount of processed bytes
+     * @return the amount of processed bytes
+     */
+    public long getProcessedBytes() {
+        return processedBytes.get();
+    }
+
+    /**
+     * Gets the amount of bytes that have been copied into the staging folder
+     * @return the amount of staged bytes
+     */
+    public long getStagedBytes() {
+        return stagedBytes.get();
+    }
+
+    /**
+     * Gets the amount of files the backup contains
+     * @return the amount of files (0 if the files have not been collected yet)
+     */
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    /**
+     * Gets the total size of all files the backup contains
+     * @return the total size of all files (0 if the files have not been collected yet)
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the estimated time until the backup has been written
+     * @return the estimated time in seconds or <code>-1</code> if it is unknown
+     */
+    public long getEta() {
+        long processed = processedBytes.get();
+        if (state.get() != BackupJobState.RUNNING || startedAt == 0 || processed == 0) return -1;
+
+        double rate = processed / (double) Math.max(1, System.currentTimeMillis() - startedAt);
+        return (long) (Math.max(0, totalBytes - processed) / rate / 1000);
+    }
+
+    /**
+     * Gets the time the job has been created
+     * @return the time the job has been created
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time the backup has been started
+     * @return the time the backup has been started (0 if the job is queued)
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Gets the time the job has finished
+     * @return the time the job has finished (0 if the job is not finished)
+     */
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Gets the error message of a failed job
+     * @return the error message or <code>null</code> if the job did not fail
+     */
+    public String getError() {
+        return error;
+    }
+
+    private class TrackedInputStream extends FilterInputStream {
+
+        private final AtomicLong bytes;
+        private final AtomicInteger files;
+        private boolean closed;
+
+        /**
+         * Basic constructor of the {@link TrackedInputStream}
+         * @param inputStream The stream that should be tracked
+         * @param bytes The counter the read bytes get added to (<code>null</code> if they should not be counted)
+         * @param files The counter that gets incremented once the stream has been closed
+         *              (<code>null</code> if the file should not be counted)
+         */
+        TrackedInputStream(InputStream inputStream, AtomicLong bytes, AtomicInteger files) {
+            super(inputStream);
+            this.bytes = bytes;
+            this.files = files;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            checkCancelled();
+
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                throttle.acquire(read);
+                if (bytes != null) bytes.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+
+            if (files != null && !closed) files.incrementAndGet();
+            closed = true;
+        }
+    }
+
+}
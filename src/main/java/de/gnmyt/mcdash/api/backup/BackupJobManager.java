@@ -0,0 +1,221 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.controller.BackupController;
+import de.gnmyt.mcdash.api.entities.BackupJobState;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+public class BackupJobManager {
+
+    private static final int FINISHED_JOB_HISTORY = 50;
+
+    private final BackupController controller;
+    private final IoThrottle throttle;
+    private final Logger logger;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, BackupJob> jobs = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final AtomicLongArray finishedJobs = new AtomicLongArray(BackupJobState.values().length);
+    private final LongAdder executedJobs = new LongAdder();
+    private final LongAdder totalDuration = new LongAdder();
+
+    /**
+     * Basic constructor of the {@link BackupJobManager}
+     * @param controller The controller that creates the backups
+     * @param parallelJobs The amount of backups that may be written at the same time
+     * @param queueSize The amount of backups that may wait for a free thread
+     * @param bytesPerSecond The maximum amount of bytes all backups may read per second (0 for no limit)
+     * @param logger The logger failed backups get reported to
+     */
+    public BackupJobManager(BackupController controller, int parallelJobs, int queueSize, long bytesPerSecond, Logger logger) {
+        this.controller = controller;
+        this.throttle = new IoThrottle(bytesPerSecond);
+        this.logger = logger;
+
+        AtomicInteger threadId = new AtomicInteger();
+        int threads = Math.max(1, parallelJobs);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-BackupJob-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a new backup
+     * @param modes The modes of the backup
+     * @param paths The files and folders that should be backed up
+     * @return the queued job
+     * @throws RejectedExecutionException An exception that will be thrown if the queue is full
+     */
+    public BackupJob submit(String modes, File... paths) {
+        BackupJob job = new BackupJob(nextId.getAndIncrement(), modes, throttle);
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, paths));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+
+        pruneHistory();
+        return job;
+    }
+
+    /**
+     * Runs a backup job
+     * @param job The job
+     * @param paths The files and folders that should be backed up
+     */
+    private void run(BackupJob job, File... paths) {
+        if (!job.start()) return;
+
+        BackupJobState state = BackupJobState.FAILED;
+        String error = "The backup has been aborted";
+        try {
+            controller.createBackup(job, paths);
+            state = BackupJobState.COMPLETED;
+            error = null;
+        } catch (Throwable e) {
+            if (job.isCancelled()) {
+                state = BackupJobState.CANCELLED;
+                error = null;
+            } else {
+                error = e.getMessage() != null ? e.getMessage() : e.toString();
+                logger.warning("Could not create the backup " + job.getId() + ": " + error);
+            }
+        } finally {
+            finish(job, BackupJobState.RUNNING, state, error);
+        }
+    }
+
+    /**
+     * Finishes a job and updates the statistics, if the job still is in the expected state
+     * @param job The job
+     * @param expected The state the job is expected to be in
+     * @param state The final state of the job
+     * @param error The error message (<code>null</code> if the job did not fail)
+     * @return <code>true</code> if the job has been finished, otherwise <code>false</code>
+     */
+    private boolean finish(BackupJob job, BackupJobState expected, BackupJobState state, String error) {
+        if (!job.finish(expected, state, error)) return false;
+
+        finishedJobs.incrementAndGet(state.ordinal());
+        if (expected == BackupJobState.RUNNING) {
+            executedJobs.increment();
+            totalDuration.add(job.getFinishedAt() - job.getStartedAt());
+        }
+        return true;
+    }
+
+    /**
+     * Removes the oldest finished jobs, so only the last few jobs are remembered
+     */
+    private void pruneHistory() {
+        int finished = 0;
+        for (BackupJob job : jobs.values()) if (job.getState().isFinished()) finished++;
+
+        Iterator<BackupJob> iterator = jobs.values().iterator();
+        while (finished > FINISHED_JOB_HISTORY && iterator.hasNext()) {
+            if (!iterator.next().getState().isFinished()) continue;
+            iterator.remove();
+            finished--;
+        }
+    }
+
+    /**
+     * Gets a job
+     * @param id The id of the job
+     * @return the job or <code>null</code> if no job with this id exists
+     */
+    public BackupJob getJob(long id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * Gets all queued, running and recently finished jobs
+     * @return all jobs, sorted by their id
+     */
+    public List<BackupJob> getJobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    /**
+     * Cancels a job. Queued jobs are cancelled immediately, running jobs stop at the next read
+     * @param id The id of the job
+     * @return <code>true</code> if the job has been cancelled, <code>false</code> if it does not exist or has already finished
+     */
+    public boolean cancel(long id) {
+        BackupJob job = jobs.get(id);
+        if (job == null || !job.cancel()) return false;
+
+        finish(job, BackupJobState.QUEUED, BackupJobState.CANCELLED, null);
+        return true;
+    }
+
+    /**
+     * Gets the amount of jobs that finished with a state since the plugin has been started
+     * @param state The state the jobs finished with
+     * @return the amount of jobs
+     */
+    public long getFinishedJobs(BackupJobState state) {
+        return finishedJobs.get(state.ordinal());
+    }
+
+    /**
+     * Gets the amount of jobs that have been executed since the plugin has been started
+     * @return the amount of executed jobs
+     */
+    public long getExecutedJobs() {
+        return executedJobs.sum();
+    }
+
+    /**
+     * Gets the time all executed jobs took since the plugin has been started
+     * @return the total duration in milliseconds
+     */
+    public long getTotalDuration() {
+        return totalDuration.sum();
+    }
+
+    /**
+     * Gets the amount of jobs that wait for a free backup thread
+     * @return the amount of queued jobs
+     */
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Gets the amount of jobs that are currently written
+     * @return the amount of running jobs
+     */
+    public int getRunningJobs() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Stops all jobs. Running backups get cancelled
+     */
+    public void shutdown() {
+        for (BackupJob job : jobs.values()) cancel(job.getId());
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,415 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupCodec;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+public class BackupRestorer {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path rootFolder;
+    private final Path backupFolder;
+    private final ChunkStore chunkStore;
+    private final int threads;
+    private final Logger logger;
+
+    /**
+     * Basic constructor of the {@link BackupRestorer}
+     * @param rootFolder The folder the backups get restored into (the server folder)
+     * @param backupFolder The folder the backups are stored in. It never gets replaced by a restore
+     * @param chunkStore The chunk store of the snapshots
+     * @param threads The amount of threads that should extract the files
+     * @param logger The logger the duration of the restore gets reported to
+     */
+    public BackupRestorer(File rootFolder, File backupFolder, ChunkStore chunkStore, int threads, Logger logger) {
+        this.rootFolder = rootFolder.toPath().toAbsolutePath().normalize();
+        this.backupFolder = backupFolder.toPath().toAbsolutePath().normalize();
+        this.chunkStore = chunkStore;
+        this.threads = Math.max(1, threads);
+        this.logger = logger;
+    }
+
+    /**
+     * Restores a zip backup. All entries get extracted in parallel into a staging folder and
+     * their checksums get verified, before the restored files replace the current ones
+     * @param backup The zip file of the backup
+     * @throws IOException An exception that will be thrown if the backup could not be restored
+     */
+    public void restoreZip(File backup) throws IOException {
+        try (ZipFile zipFile = new ZipFile(backup)) {
+            List<ZipArchiveEntry> entries = Collections.list(zipFile.getEntries());
+
+            restore(backup.getName(), staging -> {
+                List<Task> tasks = new ArrayList<>();
+
+                for (ZipArchiveEntry entry : entries) {
+                    Path target = resolve(staging, entry.getName());
+
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(target);
+                        continue;
+                    }
+
+                    tasks.add(() -> {
+                        CRC32 crc = new CRC32();
+                        try (InputStream inputStream = zipFile.getInputStream(entry)) {
+                            copy(inputStream, target, crc);
+                        }
+
+                        if (entry.getCrc() != -1 && crc.getValue() != entry.getCrc())
+                            throw new IOException("The checksum of " + entry.getName() + " does not match");
+
+                        Files.setLastModifiedTime(target, entry.getLastModifiedTime());
+                    });
+                }
+
+                return tasks;
+            });
+        }
+    }
+
+    /**
+     * Restores a snapshot. All files get joined from their chunks in parallel into a staging folder and
+     * the hash of every chunk gets verified, before the restored files replace the current ones
+     * @param backup The manifest of the snapshot
+     * @throws IOException An exception that will be thrown if the snapshot could not be restored
+     */
+    public void restoreSnapshot(File backup) throws IOException {
+        SnapshotManifest manifest = SnapshotManifest.read(backup);
+
+        restore(backup.getName(), staging -> {
+            List<Task> tasks = new ArrayList<>();
+
+            for (SnapshotFile file : manifest.getFiles()) {
+                Path target = resolve(staging, file.getName());
+
+                tasks.add(() -> {
+                    Files.createDirectories(target.getParent());
+
+                    try (OutputStream outputStream = Files.newOutputStream(target)) {
+                        for (String chunk : file.getChunks()) {
+                            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                            try (InputStream inputStream = chunkStore.open(chunk)) {
+                                copy(inputStream, outputStream, digest);
+                            }
+
+                            if (!ChunkStore.toHex(digest.digest()).equals(chunk))
+                                throw new IOException("The chunk " + chunk + " of " + file.getName() + " is corrupted");
+                        }
+                    }
+
+                    target.toFile().setLastModified(file.getLastModified());
+                });
+            }
+
+            return tasks;
+        });
+    }
+
+    /**
+     * Restores a compressed tar backup. The archive can only be read sequentially, its integrity is
+     * verified by the checksums of the codec before the restored files replace the current ones
+     * @param backup The tar file of the backup
+     * @param codec The codec the tar file is compressed with
+     * @throws IOException An exception that will be thrown if the backup could not be restored
+     */
+    public void restoreTar(File backup, BackupCodec codec) throws IOException {
+        restore(backup.getName(), staging -> Collections.singletonList(() -> {
+            try (TarArchiveInputStream inputStream = new TarArchiveInputStream(codec.decompress(
+                    new BufferedInputStream(Files.newInputStream(backup.toPath()), BUFFER_SIZE)))) {
+                TarArchiveEntry entry;
+                while ((entry = inputStream.getNextEntry()) != null) {
+                    Path target = resolve(staging, entry.getName());
+
+                    if (entry.isDirectory()) {
+                        Files.createDirectories(target);
+                        continue;
+                    }
+
+                    copy(inputStream, target, new CRC32());
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(entry.getModTime().getTime()));
+                }
+            }
+        }));
+    }
+
+    /**
+     * Extracts a backup into a staging folder and swaps the restored files in
+     * @param name The name of the backup
+     * @param extractor The extractor that creates the tasks for all files of the backup
+     * @throws IOException An exception that will be thrown if the backup could not be restored
+     */
+    private void restore(String name, Extractor extractor) throws IOException {
+        long startTime = System.nanoTime();
+        Path staging = rootFolder.resolve(".restore-" + System.currentTimeMillis());
+        Path trash = rootFolder.resolve(staging.getFileName() + "-old");
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-Restore-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (rootFolder.startsWith(backupFolder))
+            throw new IOException("The backup folder contains the server folder, restoring would replace the backups");
+
+        try {
+            Files.createDirectories(staging);
+
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Task task : extractor.createTasks(staging)) futures.add(executor.submit(() -> {
+                task.run();
+                return null;
+            }));
+            for (Future<Void> future : futures) future.get();
+
+            long extractTime = System.nanoTime();
+            swap(staging, trash);
+            FileUtils.deleteQuietly(trash.toFile());
+
+            logger.info(String.format("Restored backup %s in %.1fs, the files were swapped in within %d ms",
+                    name, (System.nanoTime() - startTime) / 1e9, (System.nanoTime() - extractTime) / 1000000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The restore has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not restore the backup " + name, e.getCause());
+        } finally {
+            executor.shutdownNow();
+            FileUtils.deleteQuietly(staging.toFile());
+        }
+    }
+
+    /**
+     * Replaces the current top-level files and folders with the restored ones.
+     * Folders that contain the backup folder are swapped file by file instead, so the backups, the chunk store
+     * and the staging folders are never replaced. If a file could not be swapped, all files that have already
+     * been swapped get moved back
+     * @param staging The staging folder that contains the restored files
+     * @param trash The folder the replaced files get moved to
+     * @throws IOException An exception that will be thrown if the files could not be swapped
+     */
+    private void swap(Path staging, Path trash) throws IOException {
+        Files.createDirectories(trash);
+
+        List<String> swapped = new ArrayList<>();
+        try {
+            swap(staging, trash, "", swapped);
+        } catch (IOException e) {
+            rollback(swapped, staging, trash, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Swaps the restored contents of a folder
+     * @param staging The staging folder that contains the restored files
+     * @param trash The folder the replaced files get moved to
+     * @param folder The path of the folder relative to the server folder (empty for the server folder itself)
+     * @param swapped The names of the files that have (at least partially) been swapped
+     * @throws IOException An exception that will be thrown if the files could not be swapped
+     */
+    private void swap(Path staging, Path trash, String folder, List<String> swapped) throws IOException {
+        List<String> restored = list(staging.resolve(folder));
+
+        if (!folder.isEmpty()) {
+            Files.createDirectories(rootFolder.resolve(folder));
+
+            for (String name : list(rootFolder.resolve(folder))) {
+                String path = folder + "/" + name;
+                if (restored.contains(name) || isProtected(rootFolder.resolve(path))) continue;
+
+                swapped.add(path);
+                moveToTrash(rootFolder.resolve(path), trash.resolve(path));
+            }
+        }
+
+        for (String name : restored) {
+            String path = folder.isEmpty() ? name : folder + "/" + name;
+            Path target = rootFolder.resolve(path);
+
+            if (isProtected(target)) continue;
+
+            if (backupFolder.startsWith(target)) {
+                if (!Files.isDirectory(staging.resolve(path)))
+                    throw new IOException("Restoring " + path + " would replace the backup folder");
+
+                swap(staging, trash, path, swapped);
+                continue;
+            }
+
+            swapped.add(path);
+            if (Files.exists(target)) moveToTrash(target, trash.resolve(path));
+            move(staging.resolve(path), target);
+        }
+    }
+
+    /**
+     * Checks if a file must not be replaced by a restore, because it is (or is inside of) the backup folder
+     * or a folder of another restore
+     * @param path The absolute path of the file
+     * @return <code>true</code> if the file must not be replaced, otherwise <code>false</code>
+     */
+    private boolean isProtected(Path path) {
+        return path.startsWith(backupFolder) || (path.getParent().equals(rootFolder)
+                && path.getFileName().toString().startsWith(".restore-"));
+    }
+
+    /**
+     * Gets the names of all files and folders inside a folder
+     * @param folder The folder
+     * @return the names of all files and folders
+     * @throws IOException An exception that will be thrown if the folder could not be listed
+     */
+    private List<String> list(Path folder) throws IOException {
+        try (Stream<Path> stream = Files.list(folder)) {
+            return stream.map(path -> path.getFileName().toString()).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Moves a replaced file into the trash
+     * @param source The file that gets replaced
+     * @param target The location of the file in the trash
+     * @throws IOException An exception that will be thrown if the file could not be moved
+     */
+    private void moveToTrash(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        move(source, target);
+    }
+
+    /**
+     * Moves the restored files back into the staging folder and the replaced files back to their old location.
+     * The trash only gets deleted if every file could be moved back, otherwise it is kept so that no files get lost
+     * @param swapped The names of the files that have (at least partially) been swapped
+     * @param staging The staging folder that contains the restored files
+     * @param trash The folder the replaced files have been moved to
+     * @param cause The exception that caused the rollback. Errors of the rollback get added to it
+     */
+    private void rollback(List<String> swapped, Path staging, Path trash, IOException cause) {
+        boolean complete = true;
+
+        for (int i = swapped.size() - 1; i >= 0; i--) {
+            String name = swapped.get(i);
+            Path source = staging.resolve(name);
+            Path target = rootFolder.resolve(name);
+            Path replaced = trash.resolve(name);
+
+            try {
+                if (!Files.exists(source) && Files.exists(target)) move(target, source);
+                if (Files.exists(replaced)) move(replaced, target);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+                complete = false;
+            }
+        }
+
+        if (complete) {
+            FileUtils.deleteQuietly(trash.toFile());
+        } else {
+            logger.severe("Could not roll back the restore, the replaced files were kept in " + trash);
+        }
+    }
+
+    /**
+     * Moves a file or folder. The move is atomic if the file system supports it
+     * @param source The file or folder that should be moved
+     * @param target The new location
+     * @throws IOException An exception that will be thrown if the file or folder could not be moved
+     */
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Resolves the name of a file inside the staging folder
+     * @param staging The staging folder
+     * @param name The name of the file inside the backup
+     * @return the path of the file in the staging folder
+     * @throws IOException An exception that will be thrown if the name points outside of the staging folder
+     */
+    private Path resolve(Path staging, String name) throws IOException {
+        Path target = staging.resolve(name).normalize();
+        if (!target.startsWith(staging) || target.equals(staging)) throw new IOException("Invalid file name in backup: " + name);
+        return target;
+    }
+
+    /**
+     * Copies a stream into a file and updates the checksum
+     * @param inputStream The stream that should be copied
+     * @param target The file the stream should be written to
+     * @param crc The checksum that should be updated
+     * @throws IOException An exception that will be thrown if the file could not be written
+     */
+    private void copy(InputStream inputStream, Path target, CRC32 crc) throws IOException {
+        Files.createDirectories(target.getParent());
+
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+                outputStream.write(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Copies a stream into another stream and updates the digest
+     * @param inputStream The stream that should be copied
+     * @param outputStream The stream the data should be written to
+     * @param digest The digest that should be updated
+     * @throws IOException An exception that will be thrown if the stream could not be copied
+     */
+    private void copy(InputStream inputStream, OutputStream outputStream, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+            outputStream.write(buffer, 0, read);
+        }
+    }
+
+    private interface Task {
+        void run() throws IOException, NoSuchAlgorithmException;
+    }
+
+    private interface Extractor {
+        List<Task> createTasks(Path staging) throws IOException;
+    }
+
+}
@@ -0,0 +1,330 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupCodec;
+import de.gnmyt.mcdash.api.entities.BackupFormat;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.parallel.FileBasedScatterGatherBackingStore;
+import org.apache.commons.compress.parallel.ScatterGatherBackingStore;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+public class BackupWriter {
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final File backupFolder;
+    private final ChangeManifest changeManifest;
+    private final BackupCodec codec;
+    private final int compressionLevel;
+    private final int threads;
+    private final BackupJob job;
+    private final Logger logger;
+
+    /**
+     * Basic constructor of the {@link BackupWriter}
+     * @param backupFolder The folder the backups are stored in. This folder will never be part of a backup
+     * @param changeManifest The manifest of all files in the previous backups
+     * @param codec The codec the files should be compressed with
+     * @param compressionLevel The compression level of the codec (0-9 for deflate, 1-22 for zstd)
+     * @param threads The amount of threads that should compress the entries
+     * @param job The job the progress of the backup gets reported to
+     * @param logger The logger the throughput of the backup gets reported to
+     */
+    public BackupWriter(File backupFolder, ChangeManifest changeManifest, BackupCodec codec, int compressionLevel, int threads,
+                        BackupJob job, Logger logger) {
+        this.backupFolder = backupFolder.getAbsoluteFile();
+        this.changeManifest = changeManifest;
+        this.codec = codec;
+        this.compressionLevel = compressionLevel;
+        this.threads = Math.max(1, threads);
+        this.job = job;
+        this.logger = logger;
+    }
+
+    /**
+     * Writes a new backup. The files are streamed from the disk and compressed with the codec of this writer.
+     * The backup file only appears once it has been written completely
+     * @param backupFile The backup file that should be created
+     * @param paths The files and folders that should be backed up
+     * @return the SHA-256 checksum of the backup file
+     * @throws IOException An exception that will be thrown if the backup could not be written
+     */
+    public String write(File backupFile, File... paths) throws IOException {
+        long startTime = System.nanoTime();
+        List<BackupEntry> entries = BackupEntry.collect(backupFolder, paths);
+        File tempFile = new File(backupFile.getParentFile(), backupFile.getName() + ".tmp");
+
+        long bytes = 0;
+        for (BackupEntry entry : entries) bytes += entry.getSize();
+        job.setTotal(entries.size(), bytes);
+
+        int copied = 0;
+        String checksum;
+        try {
+            if (codec.getFormat() == BackupFormat.ZIP) {
+                copied = writeZip(tempFile, backupFile.getName(), entries);
+                checksum = BackupCatalog.checksum(tempFile);
+            } else checksum = writeTar(tempFile, entries);
+
+            Files.move(tempFile.toPath(), backupFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+        }
+
+        double seconds = Math.max((System.nanoTime() - startTime) / 1e9, 0.001);
+        double megabytes = bytes / 1024.0 / 1024.0;
+        logger.info(String.format("Created %s backup %s (%d files, %d unchanged, %.1f MB -> %.1f MB) in %.1fs (%.1f MB/s)",
+                codec.name().toLowerCase(), backupFile.getName(), entries.size(), copied, megabytes,
+                backupFile.length() / 1024.0 / 1024.0, seconds, megabytes / seconds));
+
+        return checksum;
+    }
+
+    /**
+     * Writes a zip backup. The entries are compressed in parallel, files that have not changed since
+     * the previous backup are copied from it without being compressed again
+     * @param zip The zip file that should be written
+     * @param name The final name of the backup
+     * @param entries All files of the backup
+     * @return the amount of files that have been copied from a previous backup
+     * @throws IOException An exception that will be thrown if the backup could not be written
+     */
+    private int writeZip(File zip, String name, List<BackupEntry> entries) throws IOException {
+        int method = codec == BackupCodec.STORE ? ZipEntry.STORED : ZipEntry.DEFLATED;
+        int level = Math.max(Deflater.DEFAULT_COMPRESSION, Math.min(compressionLevel, Deflater.BEST_COMPRESSION));
+        int copied = 0;
+        Map<String, ZipFile> sources = new HashMap<>();
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-Backup-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<ScatterGatherBackingStore> stores = Collections.synchronizedList(new ArrayList<>());
+        ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor, () -> {
+            ScatterGatherBackingStore store = new FileBasedScatterGatherBackingStore(Files.createTempFile(backupFolder.toPath(), "scatter", ".tmp"));
+            stores.add(store);
+            return store;
+        }, level);
+
+        try {
+            try (ZipArchiveOutputStream outputStream = new ZipArchiveOutputStream(zip)) {
+                for (BackupEntry entry : entries) {
+                    job.checkCancelled();
+
+                    if (!Files.isReadable(entry.getPath())) {
+                        skip(entry, "the file is not readable");
+                        continue;
+                    }
+
+                    ManifestEntry manifestEntry = changeManifest.getUnchanged(entry);
+                    ZipArchiveEntry previous = findUnchanged(entry, manifestEntry, sources);
+                    if (previous != null && previous.getMethod() == method) {
+                        outputStream.addRawArchiveEntry(previous, job.throttle(sources.get(manifestEntry.getSource()).getRawInputStream(previous)));
+                        job.addProcessed(entry.getSize());
+                        copied++;
+                        continue;
+                    }
+
+                    ZipArchiveEntry zipEntry = new ZipArchiveEntry(entry.getName());
+                    zipEntry.setMethod(method);
+                    zipEntry.setTime(entry.getLastModified());
+
+                    creator.addArchiveEntry(zipEntry, () -> openFile(entry.getPath()));
+                }
+
+                creator.writeTo(outputStream);
+            }
+
+            updateManifest(zip, name, entries);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The backup has been interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e.getCause();
+            throw new IOException("Could not compress the backup", cause);
+        } finally {
+            executor.shutdownNow();
+            for (ZipFile source : sources.values()) source.close();
+            deleteStores(executor, stores);
+        }
+
+        return copied;
+    }
+
+    /**
+     * Writes a compressed tar backup. The archive is streamed through the codec, so every file gets read again
+     * @param tar The tar file that should be written
+     * @param entries All files of the backup
+     * @return the SHA-256 checksum of the tar file
+     * @throws IOException An exception that will be thrown if the backup could not be written
+     */
+    private String writeTar(File tar, List<BackupEntry> entries) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        MessageDigest digest = BackupCatalog.newDigest();
+
+        try (TarArchiveOutputStream outputStream = new TarArchiveOutputStream(codec.compress(new BufferedOutputStream(
+                new DigestOutputStream(Files.newOutputStream(tar.toPath()), digest), BUFFER_SIZE), compressionLevel))) {
+            outputStream.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            outputStream.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+
+            for (BackupEntry entry : entries) {
+                job.checkCancelled();
+
+                InputStream fileStream;
+                try {
+                    fileStream = job.track(Files.newInputStream(entry.getPath()));
+                } catch (IOException e) {
+                    skip(entry, e.getMessage());
+                    continue;
+                }
+
+                TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getName(), true);
+                tarEntry.setSize(entry.getSize());
+                tarEntry.setModTime(entry.getLastModified());
+                outputStream.putArchiveEntry(tarEntry);
+
+                try (InputStream inputStream = fileStream) {
+                    long remaining = entry.getSize();
+                    while (remaining > 0) {
+                        int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                        if (read == -1) {
+                            Arrays.fill(buffer, (byte) 0);
+                            read = (int) Math.min(buffer.length, remaining);
+                        }
+                        outputStream.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                }
+
+                outputStream.closeArchiveEntry();
+            }
+        }
+
+        return ChunkStore.toHex(digest.digest());
+    }
+
+    /**
+     * Searches the previous backup of an unchanged file
+     * @param entry The file that should be backed up
+     * @param manifestEntry The state of the file in the change manifest (<code>null</code> if the file has changed)
+     * @param sources All previous backups that have already been opened
+     * @return the zip entry of the file in the previous backup or <code>null</code> if the file has to be compressed again
+     * @throws IOException An exception that will be thrown if the previous backup could not be opened
+     */
+    private ZipArchiveEntry findUnchanged(BackupEntry entry, ManifestEntry manifestEntry, Map<String, ZipFile> sources) throws IOException {
+        if (manifestEntry == null || !manifestEntry.getSource().endsWith(".zip")) return null;
+
+        ZipFile source = sources.get(manifestEntry.getSource());
+        if (source == null) {
+            source = new ZipFile(new File(backupFolder, manifestEntry.getSource()));
+            sources.put(manifestEntry.getSource(), source);
+        }
+
+        ZipArchiveEntry previous = source.getEntry(entry.getName());
+        if (previous == null || previous.getSize() != manifestEntry.getSize() || previous.getCrc() != manifestEntry.getCrc())
+            return null;
+
+        return previous;
+    }
+
+    /**
+     * Records the state of every file of the new backup in the change manifest
+     * @param zip The written zip file
+     * @param name The final name of the backup
+     * @param entries All files of the backup
+     * @throws IOException An exception that will be thrown if the zip file could not be read
+     */
+    private void updateManifest(File zip, String name, List<BackupEntry> entries) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zip)) {
+            for (BackupEntry entry : entries) {
+                ZipArchiveEntry zipEntry = zipFile.getEntry(entry.getName());
+                if (zipEntry == null) continue;
+
+                changeManifest.update(entry.getName(), new ManifestEntry(zipEntry.getSize(), entry.getLastModified(), zipEntry.getCrc(), name));
+            }
+        }
+        changeManifest.save();
+    }
+
+    /**
+     * Opens a file for the backup. The file gets opened by a compression thread, so a file that can not be opened
+     * anymore (e.g. because it has been locked or deleted) fails the backup instead of being stored empty
+     * @param file The file that should be opened
+     * @return the tracked input stream of the file
+     * @throws UncheckedIOException An exception that will be thrown if the file could not be opened
+     */
+    private InputStream openFile(Path file) {
+        try {
+            return job.track(Files.newInputStream(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Skips a file that can not be read. The file is left out of the backup, so it never replaces
+     * the real file when the backup gets restored
+     * @param entry The file that should be skipped
+     * @param reason The reason why the file could not be read
+     */
+    private void skip(BackupEntry entry, String reason) {
+        logger.warning("Skipped " + entry.getName() + " in the backup: " + reason);
+        job.addProcessed(entry.getSize());
+    }
+
+    /**
+     * Deletes the temporary files of the compression threads. The files are only deleted by the creator if the
+     * backup has been written completely, so they would be left behind if the backup fails or gets cancelled
+     * @param executor The executor of the compression threads
+     * @param stores The temporary files of the compression threads
+     */
+    private void deleteStores(ExecutorService executor, List<ScatterGatherBackingStore> stores) {
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (stores) {
+            for (ScatterGatherBackingStore store : stores) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    logger.warning("Could not delete a temporary file of the backup: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+}
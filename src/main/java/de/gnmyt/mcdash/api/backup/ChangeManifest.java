@@ -0,0 +1,111 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ChangeManifest {
+
+    private static final int MAGIC = 0x4D43434D;
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final File backupFolder;
+    private final Map<String, ManifestEntry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Basic constructor of the {@link ChangeManifest}
+     * Loads the manifest from the disk if it exists
+     * @param file The file the manifest is stored in
+     * @param backupFolder The folder the backups are stored in
+     */
+    public ChangeManifest(File file, File backupFolder) {
+        this.file = file;
+        this.backupFolder = backupFolder;
+
+        if (file.exists()) {
+            try {
+                load();
+            } catch (IOException e) {
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the state of a file from the last backup that contained it, if the file has not changed since then
+     * @param entry The file that should be checked
+     * @return the entry of the file or <code>null</code> if the file has been changed or its backup no longer exists
+     */
+    public ManifestEntry getUnchanged(BackupEntry entry) {
+        ManifestEntry manifestEntry = entries.get(entry.getName());
+        if (manifestEntry == null) return null;
+
+        if (manifestEntry.getSize() != entry.getSize() || manifestEntry.getLastModified() != entry.getLastModified())
+            return null;
+
+        return new File(backupFolder, manifestEntry.getSource()).exists() ? manifestEntry : null;
+    }
+
+    /**
+     * Updates the state of a file
+     * @param name The name of the file inside the backup
+     * @param entry The new state of the file
+     */
+    public void update(String name, ManifestEntry entry) {
+        entries.put(name, entry);
+    }
+
+    /**
+     * Loads the manifest from the disk
+     * @throws IOException An exception that will be thrown if the manifest could not be read
+     */
+    private void load() throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION)
+                throw new IOException("Invalid change manifest");
+
+            int count = inputStream.readInt();
+            for (int i = 0; i < count; i++) {
+                String name = inputStream.readUTF();
+                entries.put(name, new ManifestEntry(inputStream.readLong(), inputStream.readLong(),
+                        inputStream.readLong(), inputStream.readUTF()));
+            }
+        }
+    }
+
+    /**
+     * Saves the manifest to the disk. Backups may run in parallel, so only one of them writes the manifest at a time
+     * @throws IOException An exception that will be thrown if the manifest could not be written
+     */
+    public synchronized void save() throws IOException {
+        Path tempFile = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+        Map<String, ManifestEntry> entries = new HashMap<>(this.entries);
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(entries.size());
+
+            for (Map.Entry<String, ManifestEntry> entry : entries.entrySet()) {
+                outputStream.writeUTF(entry.getKey());
+                outputStream.writeLong(entry.getValue().getSize());
+                outputStream.writeLong(entry.getValue().getLastModified());
+                outputStream.writeLong(entry.getValue().getCrc());
+                outputStream.writeUTF(entry.getValue().getSource());
+            }
+        }
+
+        Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
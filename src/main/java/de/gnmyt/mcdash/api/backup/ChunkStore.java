@@ -0,0 +1,155 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+public class ChunkStore {
+
+    public static final int CHUNK_SIZE = 1024 * 1024;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path root;
+    private final int compressionLevel;
+
+    /**
+     * Basic constructor of the {@link ChunkStore}
+     * @param root The folder the chunks are stored in
+     * @param compressionLevel The deflate compression level of new chunks
+     */
+    public ChunkStore(File root, int compressionLevel) {
+        this.root = root.toPath();
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * Stores a chunk if it is not already part of the store
+     * @param data The buffer that contains the chunk
+     * @param length The length of the chunk
+     * @return the SHA-256 hash of the chunk
+     * @throws IOException An exception that will be thrown if the chunk could not be stored
+     */
+    public String put(byte[] data, int length) throws IOException {
+        String hash = hash(data, length);
+        Path chunk = getPath(hash);
+        if (Files.exists(chunk)) return hash;
+
+        Files.createDirectories(chunk.getParent());
+        Path tempFile = Files.createTempFile(chunk.getParent(), hash, ".tmp");
+
+        Deflater deflater = new Deflater(compressionLevel);
+        try (OutputStream outputStream = new DeflaterOutputStream(Files.newOutputStream(tempFile), deflater, 64 * 1024)) {
+            outputStream.write(data, 0, length);
+        } finally {
+            deflater.end();
+        }
+
+        try {
+            Files.move(tempFile, chunk, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        return hash;
+    }
+
+    /**
+     * Opens a chunk of the store
+     * @param hash The hash of the chunk
+     * @return the uncompressed content of the chunk
+     * @throws IOException An exception that will be thrown if the chunk does not exist
+     */
+    public InputStream open(String hash) throws IOException {
+        return new InflaterInputStream(Files.newInputStream(getPath(hash)), new Inflater(), 64 * 1024);
+    }
+
+    /**
+     * Deletes all chunks that are not referenced anymore
+     * @param referenced The hashes of all chunks that are still referenced by a snapshot
+     * @return the amount of deleted chunks
+     * @throws IOException An exception that will be thrown if the store could not be read
+     */
+    public int deleteUnreferenced(Set<String> referenced) throws IOException {
+        if (!Files.isDirectory(root)) return 0;
+        int deleted = 0;
+
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root)) {
+            for (Path prefix : prefixes) {
+                if (!Files.isDirectory(prefix)) continue;
+
+                try (DirectoryStream<Path> chunks = Files.newDirectoryStream(prefix)) {
+                    for (Path chunk : chunks) {
+                        String name = chunk.getFileName().toString();
+                        if (name.endsWith(".tmp") || referenced.contains(name)) continue;
+                        Files.deleteIfExists(chunk);
+                        deleted++;
+                    }
+                }
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Gets the size of a stored (compressed) chunk
+     * @param hash The hash of the chunk
+     * @return the size of the chunk in bytes or 0 if the chunk does not exist
+     */
+    public long getSize(String hash) {
+        return getPath(hash).toFile().length();
+    }
+
+    /**
+     * Gets the path of a chunk
+     * @param hash The hash of the chunk
+     * @return the path of the chunk
+     */
+    private Path getPath(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Calculates the SHA-256 hash of a chunk
+     * @param data The buffer that contains the chunk
+     * @param length The length of the chunk
+     * @return the hash as a hex string
+     */
+    private String hash(byte[] data, int length) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(data, 0, length);
+            return toHex(messageDigest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Converts a digest into a hex string
+     * @param digest The digest that should be converted
+     * @return the hex string
+     */
+    static String toHex(byte[] digest) {
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+}
@@ -0,0 +1,210 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.api.entities.BackupCodec;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CodecBenchmark {
+
+    private static final int WARMUP_SIZE = 1024 * 1024;
+
+    private final File backupFolder;
+    private final int compressionLevel;
+    private final int zstdLevel;
+
+    /**
+     * Basic constructor of the {@link CodecBenchmark}
+     * @param backupFolder The folder the backups are stored in. This folder will never be part of the sample
+     * @param compressionLevel The deflate compression level
+     * @param zstdLevel The Zstandard compression level
+     */
+    public CodecBenchmark(File backupFolder, int compressionLevel, int zstdLevel) {
+        this.backupFolder = backupFolder;
+        this.compressionLevel = compressionLevel;
+        this.zstdLevel = zstdLevel;
+    }
+
+    /**
+     * Compresses a sample of the given folder with every available codec
+     * @param folder The folder the sample should be taken from (e.g. a world folder)
+     * @param sampleSize The maximum size of the sample in bytes
+     * @return the results of all codecs
+     * @throws IOException An exception that will be thrown if the sample could not be read
+     */
+    public List<Result> run(File folder, int sampleSize) throws IOException {
+        byte[] sample = readSample(folder, sampleSize);
+        List<Result> results = new ArrayList<>();
+
+        for (BackupCodec codec : BackupCodec.values()) {
+            if (!codec.isAvailable()) {
+                results.add(new Result(codec, sample.length, 0, 0, 0));
+                continue;
+            }
+
+            int level = codec == BackupCodec.ZSTD ? zstdLevel : compressionLevel;
+            decompress(codec, compress(codec, level, sample, Math.min(sample.length, WARMUP_SIZE)));
+
+            long startTime = System.nanoTime();
+            byte[] compressed = compress(codec, level, sample, sample.length);
+            long compressTime = System.nanoTime() - startTime;
+
+            startTime = System.nanoTime();
+            decompress(codec, compressed);
+            long decompressTime = System.nanoTime() - startTime;
+
+            results.add(new Result(codec, sample.length, compressed.length, compressTime, decompressTime));
+        }
+
+        return results;
+    }
+
+    /**
+     * Reads the first files of a folder into memory
+     * @param folder The folder that should be read
+     * @param sampleSize The maximum amount of bytes that should be read
+     * @return the sample
+     * @throws IOException An exception that will be thrown if the folder could not be read
+     */
+    private byte[] readSample(File folder, int sampleSize) throws IOException {
+        List<BackupEntry> entries = BackupEntry.collect(backupFolder, folder);
+        long available = entries.stream().mapToLong(BackupEntry::getSize).sum();
+
+        ByteArrayOutputStream sample = new ByteArrayOutputStream((int) Math.min(sampleSize, available));
+        byte[] buffer = new byte[64 * 1024];
+
+        for (BackupEntry entry : entries) {
+            try (InputStream inputStream = Files.newInputStream(entry.getPath())) {
+                int read;
+                while (sample.size() < sampleSize
+                        && (read = inputStream.read(buffer, 0, Math.min(buffer.length, sampleSize - sample.size()))) != -1)
+                    sample.write(buffer, 0, read);
+            } catch (IOException ignored) {
+            }
+
+            if (sample.size() >= sampleSize) break;
+        }
+
+        return sample.toByteArray();
+    }
+
+    /**
+     * Compresses the sample
+     * @param codec The codec that should be used
+     * @param level The compression level
+     * @param sample The sample
+     * @param length The amount of bytes that should be compressed
+     * @return the compressed data
+     * @throws IOException An exception that will be thrown if the data could not be compressed
+     */
+    private byte[] compress(BackupCodec codec, int level, byte[] sample, int length) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 2 + 64);
+        try (OutputStream outputStream = codec.compress(compressed, level)) {
+            outputStream.write(sample, 0, length);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Decompresses the data and discards it
+     * @param codec The codec that should be used
+     * @param compressed The compressed data
+     * @throws IOException An exception that will be thrown if the data could not be decompressed
+     */
+    private void decompress(BackupCodec codec, byte[] compressed) throws IOException {
+        try (InputStream inputStream = codec.decompress(new ByteArrayInputStream(compressed))) {
+            IOUtils.consume(inputStream);
+        }
+    }
+
+    public static class Result {
+
+        private final BackupCodec codec;
+        private final long inputSize;
+        private final long outputSize;
+        private final long compressTime;
+        private final long decompressTime;
+
+        /**
+         * Basic constructor of the {@link Result}
+         * @param codec The codec that has been measured
+         * @param inputSize The size of the sample
+         * @param outputSize The compressed size of the sample
+         * @param compressTime The time it took to compress the sample in nanoseconds
+         * @param decompressTime The time it took to decompress the sample in nanoseconds
+         */
+        public Result(BackupCodec codec, long inputSize, long outputSize, long compressTime, long decompressTime) {
+            this.codec = codec;
+            this.inputSize = inputSize;
+            this.outputSize = outputSize;
+            this.compressTime = compressTime;
+            this.decompressTime = decompressTime;
+        }
+
+        /**
+         * Gets the codec that has been measured
+         * @return the codec that has been measured
+         */
+        public BackupCodec getCodec() {
+            return codec;
+        }
+
+        /**
+         * Gets the size of the sample
+         * @return the size of the sample
+         */
+        public long getInputSize() {
+            return inputSize;
+        }
+
+        /**
+         * Gets the compressed size of the sample
+         * @return the compressed size of the sample (0 if the codec is not available)
+         */
+        public long getOutputSize() {
+            return outputSize;
+        }
+
+        /**
+         * Gets the compressed size relative to the size of the sample
+         * @return the compression ratio (e.g. 0.4 if the sample has been compressed to 40% of its size)
+         */
+        public double getRatio() {
+            return inputSize > 0 ? (double) outputSize / inputSize : 0;
+        }
+
+        /**
+         * Gets the compression speed
+         * @return the compression speed in MB/s
+         */
+        public double getCompressSpeed() {
+            return speed(compressTime);
+        }
+
+        /**
+         * Gets the decompression speed
+         * @return the decompression speed in MB/s
+         */
+        public double getDecompressSpeed() {
+            return speed(decompressTime);
+        }
+
+        /**
+         * Calculates the speed of the sample
+         * @param time The time in nanoseconds
+         * @return the speed in MB/s
+         */
+        private double speed(long time) {
+            return time > 0 ? inputSize / 1024.0 / 1024.0 / (time / 1e9) : 0;
+        }
+    }
+
+}
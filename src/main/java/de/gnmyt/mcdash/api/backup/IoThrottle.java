@@ -0,0 +1,54 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+public class IoThrottle {
+
+    private final long bytesPerSecond;
+    private long nextFree;
+
+    /**
+     * Basic constructor of the {@link IoThrottle}
+     * @param bytesPerSecond The maximum amount of bytes per second (0 for no limit)
+     */
+    public IoThrottle(long bytesPerSecond) {
+        this.bytesPerSecond = Math.max(0, bytesPerSecond);
+        this.nextFree = System.nanoTime();
+    }
+
+    /**
+     * Waits until the given amount of bytes may be read. The limit is shared by all threads that use this throttle
+     * @param bytes The amount of bytes that have been read
+     * @throws InterruptedIOException An exception that will be thrown if the thread has been interrupted while waiting
+     */
+    public void acquire(long bytes) throws InterruptedIOException {
+        if (bytesPerSecond == 0 || bytes <= 0) return;
+
+        long waitTime;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (nextFree < now) nextFree = now;
+
+            waitTime = nextFree - now;
+            nextFree += bytes * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond;
+        }
+
+        if (waitTime <= 0) return;
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the I/O limit");
+        }
+    }
+
+    /**
+     * Gets the maximum amount of bytes per second
+     * @return the maximum amount of bytes per second (0 for no limit)
+     */
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+}
@@ -0,0 +1,55 @@
+package de.gnmyt.mcdash.api.backup;
+
+public class ManifestEntry {
+
+    private final long size;
+    private final long lastModified;
+    private final long crc;
+    private final String source;
+
+    /**
+     * Basic constructor of the {@link ManifestEntry}
+     * @param size The size of the file when it has been backed up
+     * @param lastModified The last modification time of the file when it has been backed up
+     * @param crc The CRC-32 checksum of the file (<code>-1</code> if the file is stored in a snapshot)
+     * @param source The name of the last backup that contains the file
+     */
+    public ManifestEntry(long size, long lastModified, long crc, String source) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.crc = crc;
+        this.source = source;
+    }
+
+    /**
+     * Gets the size of the file when it has been backed up
+     * @return the size of the file when it has been backed up
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the last modification time of the file when it has been backed up
+     * @return the last modification time of the file when it has been backed up
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the CRC-32 checksum of the file
+     * @return the CRC-32 checksum of the file or <code>-1</code> if the file is stored in a snapshot
+     */
+    public long getCrc() {
+        return crc;
+    }
+
+    /**
+     * Gets the name of the last backup that contains the file
+     * @return the name of the last backup that contains the file
+     */
+    public String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,147 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+public class RetentionPolicy {
+
+    private final int keepLast;
+    private final int hourly;
+    private final int daily;
+    private final int weekly;
+    private final int monthly;
+    private final long maxSize;
+    private final ZoneId zone;
+
+    /**
+     * Basic constructor of the {@link RetentionPolicy}
+     * @param keepLast The amount of recent backups that should always be kept
+     * @param hourly The amount of hours for which the newest backup should be kept
+     * @param daily The amount of days for which the newest backup should be kept
+     * @param weekly The amount of weeks for which the newest backup should be kept
+     * @param monthly The amount of months for which the newest backup should be kept
+     * @param maxSize The maximum size of all backups in bytes (0 for no limit)
+     * @param zone The time zone the hours, days, weeks and months are calculated in
+     */
+    public RetentionPolicy(int keepLast, int hourly, int daily, int weekly, int monthly, long maxSize, ZoneId zone) {
+        this.keepLast = Math.max(0, keepLast);
+        this.hourly = Math.max(0, hourly);
+        this.daily = Math.max(0, daily);
+        this.weekly = Math.max(0, weekly);
+        this.monthly = Math.max(0, monthly);
+        this.maxSize = Math.max(0, maxSize);
+        this.zone = zone;
+    }
+
+    /**
+     * Checks if the policy removes any backups
+     * @return <code>true</code> if at least one rule is configured, otherwise <code>false</code>
+     */
+    public boolean isEnabled() {
+        return hasCountRules() || maxSize > 0;
+    }
+
+    /**
+     * Checks if the policy limits the amount of backups
+     * @return <code>true</code> if a keep-last or bucket rule is configured, otherwise <code>false</code>
+     */
+    private boolean hasCountRules() {
+        return keepLast + hourly + daily + weekly + monthly > 0;
+    }
+
+    /**
+     * Selects all backups that should be deleted. The rules are applied separately for every combination of modes,
+     * so frequent config backups never push out world backups. A backup is kept if any rule keeps it.
+     * The maximum size is applied to all backups together and removes the oldest backups first,
+     * the newest backup is never removed. Snapshots share their chunks, so a snapshot only counts
+     * the chunks that are not already part of a newer kept snapshot
+     * @param backups All backups
+     * @param chunks The function that gets the chunks of a snapshot (an empty collection for other backups)
+     * @param chunkSize The function that gets the size of a stored chunk in bytes
+     * @return the backups that should be deleted
+     */
+    public List<BackupInfo> select(List<BackupInfo> backups, Function<BackupInfo, Collection<String>> chunks, ToLongFunction<String> chunkSize) {
+        List<BackupInfo> newestFirst = new ArrayList<>(backups);
+        newestFirst.sort(Comparator.comparingLong((BackupInfo backup) -> Long.parseLong(backup.getId())).reversed());
+
+        Set<BackupInfo> kept = new HashSet<>(newestFirst);
+
+        if (hasCountRules()) {
+            kept.clear();
+
+            Map<String, List<BackupInfo>> groups = new LinkedHashMap<>();
+            for (BackupInfo backup : newestFirst) groups.computeIfAbsent(backup.getModes(), modes -> new ArrayList<>()).add(backup);
+
+            for (List<BackupInfo> group : groups.values()) {
+                for (int i = 0; i < Math.min(keepLast, group.size()); i++) kept.add(group.get(i));
+
+                keepBuckets(group, hourly, time -> time.truncatedTo(ChronoUnit.HOURS), kept);
+                keepBuckets(group, daily, time -> time.toLocalDate(), kept);
+                keepBuckets(group, weekly, time -> time.get(IsoFields.WEEK_BASED_YEAR) * 100 + time.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR), kept);
+                keepBuckets(group, monthly, time -> time.getYear() * 100 + time.getMonthValue(), kept);
+            }
+        }
+
+        if (maxSize > 0) {
+            long size = 0;
+            boolean newest = true;
+            Set<String> counted = new HashSet<>();
+
+            for (BackupInfo backup : newestFirst) {
+                if (!kept.contains(backup)) continue;
+
+                Set<String> newChunks = new HashSet<>(chunks.apply(backup));
+                newChunks.removeAll(counted);
+
+                long backupSize = backup.getLength();
+                for (String chunk : newChunks) backupSize += chunkSize.applyAsLong(chunk);
+
+                if (size + backupSize > maxSize && !newest) {
+                    kept.remove(backup);
+                    continue;
+                }
+
+                size += backupSize;
+                counted.addAll(newChunks);
+                newest = false;
+            }
+        }
+
+        List<BackupInfo> removed = new ArrayList<>();
+        for (BackupInfo backup : newestFirst) if (!kept.contains(backup)) removed.add(backup);
+        return removed;
+    }
+
+    /**
+     * Keeps the newest backup of the most recent buckets
+     * @param newestFirst The backups, sorted from new to old
+     * @param count The amount of buckets that should be kept
+     * @param bucket The function that calculates the bucket of a backup
+     * @param kept The backups that should be kept
+     */
+    private void keepBuckets(List<BackupInfo> newestFirst, int count, Function<LocalDateTime, Object> bucket, Set<BackupInfo> kept) {
+        if (count == 0) return;
+
+        Set<Object> buckets = new HashSet<>();
+        for (BackupInfo backup : newestFirst) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(backup.getId())), zone);
+
+            if (buckets.add(bucket.apply(time))) kept.add(backup);
+            if (buckets.size() == count) return;
+        }
+    }
+
+}
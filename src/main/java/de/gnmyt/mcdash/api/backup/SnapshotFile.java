@@ -0,0 +1,57 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.util.List;
+
+public class SnapshotFile {
+
+    private final String name;
+    private final long size;
+    private final long lastModified;
+    private final List<String> chunks;
+
+    /**
+     * Basic constructor of the {@link SnapshotFile}
+     * @param name The name of the file inside the snapshot
+     * @param size The size of the file
+     * @param lastModified The last modification time of the file
+     * @param chunks The hashes of all chunks of the file (in order)
+     */
+    public SnapshotFile(String name, long size, long lastModified, List<String> chunks) {
+        this.name = name;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Gets the name of the file inside the snapshot
+     * @return the name of the file inside the snapshot
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size of the file
+     * @return the size of the file
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the last modification time of the file
+     * @return the last modification time of the file
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Gets the hashes of all chunks of the file
+     * @return the hashes of all chunks of the file
+     */
+    public List<String> getChunks() {
+        return chunks;
+    }
+}
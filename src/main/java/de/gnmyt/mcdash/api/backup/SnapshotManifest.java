@@ -0,0 +1,102 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SnapshotManifest {
+
+    private static final int MAGIC = 0x4D43534E;
+    private static final int VERSION = 1;
+
+    private final List<SnapshotFile> files;
+
+    /**
+     * Basic constructor of the {@link SnapshotManifest}
+     * @param files All files of the snapshot
+     */
+    public SnapshotManifest(List<SnapshotFile> files) {
+        this.files = files;
+    }
+
+    /**
+     * Reads a manifest from the disk
+     * @param file The manifest file
+     * @return the read manifest
+     * @throws IOException An exception that will be thrown if the manifest could not be read or is invalid
+     */
+    public static SnapshotManifest read(File file) throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (inputStream.readInt() != MAGIC) throw new IOException("The file " + file.getName() + " is no snapshot manifest");
+            if (inputStream.readInt() != VERSION) throw new IOException("Unsupported snapshot version in " + file.getName());
+
+            int fileCount = inputStream.readInt();
+            List<SnapshotFile> files = new ArrayList<>(fileCount);
+
+            for (int i = 0; i < fileCount; i++) {
+                String name = inputStream.readUTF();
+                long size = inputStream.readLong();
+                long lastModified = inputStream.readLong();
+
+                int chunkCount = inputStream.readInt();
+                List<String> chunks = new ArrayList<>(chunkCount);
+                for (int j = 0; j < chunkCount; j++) chunks.add(inputStream.readUTF());
+
+                files.add(new SnapshotFile(name, size, lastModified, chunks));
+            }
+
+            return new SnapshotManifest(files);
+        }
+    }
+
+    /**
+     * Writes the manifest to the disk. The manifest only appears once it has been written completely
+     * @param file The manifest file
+     * @throws IOException An exception that will be thrown if the manifest could not be written
+     */
+    public void write(File file) throws IOException {
+        Path tempFile = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(files.size());
+
+            for (SnapshotFile snapshotFile : files) {
+                outputStream.writeUTF(snapshotFile.getName());
+                outputStream.writeLong(snapshotFile.getSize());
+                outputStream.writeLong(snapshotFile.getLastModified());
+                outputStream.writeInt(snapshotFile.getChunks().size());
+                for (String chunk : snapshotFile.getChunks()) outputStream.writeUTF(chunk);
+            }
+        }
+
+        Files.move(tempFile, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Gets all files of the snapshot
+     * @return all files of the snapshot
+     */
+    public List<SnapshotFile> getFiles() {
+        return files;
+    }
+
+    /**
+     * Gets the total size of all files in the snapshot
+     * @return the total size of all files in the snapshot
+     */
+    public long getTotalSize() {
+        long size = 0;
+        for (SnapshotFile file : files) size += file.getSize();
+        return size;
+    }
+}
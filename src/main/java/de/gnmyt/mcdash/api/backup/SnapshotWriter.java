@@ -0,0 +1,188 @@
+package de.gnmyt.mcdash.api.backup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+public class SnapshotWriter {
+
+    private final File backupFolder;
+    private final ChunkStore chunkStore;
+    private final ChangeManifest changeManifest;
+    private final Map<String, Map<String, SnapshotFile>> previousSnapshots = new ConcurrentHashMap<>();
+    private final int threads;
+    private final BackupJob job;
+    private final Logger logger;
+
+    /**
+     * Basic constructor of the {@link SnapshotWriter}
+     * @param backupFolder The folder the backups are stored in. This folder will never be part of a snapshot
+     * @param chunkStore The chunk store the file contents are written to
+     * @param changeManifest The manifest of all files in the previous backups
+     * @param threads The amount of threads that should hash and compress the chunks
+     * @param job The job the progress of the snapshot gets reported to
+     * @param logger The logger the throughput of the snapshot gets reported to
+     */
+    public SnapshotWriter(File backupFolder, ChunkStore chunkStore, ChangeManifest changeManifest, int threads,
+                          BackupJob job, Logger logger) {
+        this.backupFolder = backupFolder;
+        this.chunkStore = chunkStore;
+        this.changeManifest = changeManifest;
+        this.threads = Math.max(1, threads);
+        this.job = job;
+        this.logger = logger;
+    }
+
+    /**
+     * Writes a new snapshot. Every file gets split into chunks of {@link ChunkStore#CHUNK_SIZE} bytes,
+     * only chunks that are not already part of the chunk store are written to the disk.
+     * Files that have not changed since the previous backup are not read at all
+     * @param manifestFile The manifest file that should be created
+     * @param paths The files and folders that should be backed up
+     * @return the manifest of the snapshot
+     * @throws IOException An exception that will be thrown if the snapshot could not be written
+     */
+    public SnapshotManifest write(File manifestFile, File... paths) throws IOException {
+        long startTime = System.nanoTime();
+        List<BackupEntry> entries = BackupEntry.collect(backupFolder, paths);
+
+        long bytes = 0;
+        for (BackupEntry entry : entries) bytes += entry.getSize();
+        job.setTotal(entries.size(), bytes);
+
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-Snapshot-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<SnapshotFile> files = new ArrayList<>(entries.size());
+
+        try {
+            List<Future<SnapshotFile>> futures = new ArrayList<>(entries.size());
+            for (BackupEntry entry : entries) futures.add(executor.submit(() -> writeFile(entry)));
+            for (Future<SnapshotFile> future : futures) {
+                SnapshotFile file = future.get();
+                if (file != null) files.add(file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The snapshot has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not write the snapshot", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        SnapshotManifest manifest = new SnapshotManifest(files);
+        manifest.write(manifestFile);
+
+        for (SnapshotFile file : files)
+            changeManifest.update(file.getName(), new ManifestEntry(file.getSize(), file.getLastModified(), -1, manifestFile.getName()));
+        changeManifest.save();
+
+        double seconds = Math.max((System.nanoTime() - startTime) / 1e9, 0.001);
+        double megabytes = manifest.getTotalSize() / 1024.0 / 1024.0;
+        logger.info(String.format("Created snapshot %s (%d files, %.1f MB) in %.1fs (%.1f MB/s)",
+                manifestFile.getName(), files.size(), megabytes, seconds, megabytes / seconds));
+
+        return manifest;
+    }
+
+    /**
+     * Splits a file into chunks and stores them in the chunk store.
+     * Files that can not be read (e.g. locked files) are skipped, so they never replace the real file on a restore
+     * @param entry The file that should be stored
+     * @return the stored file or <code>null</code> if the file could not be read
+     * @throws IOException An exception that will be thrown if a chunk could not be stored
+     */
+    private SnapshotFile writeFile(BackupEntry entry) throws IOException {
+        SnapshotFile previous = findUnchanged(entry);
+        if (previous != null) {
+            job.addProcessed(entry.getSize());
+            return previous;
+        }
+
+        List<String> chunks = new ArrayList<>();
+        long size = 0;
+
+        InputStream inputStream;
+        try {
+            inputStream = job.track(Files.newInputStream(entry.getPath()));
+        } catch (IOException e) {
+            logger.warning("Skipped " + entry.getName() + " in the snapshot: " + e.getMessage());
+            job.addProcessed(entry.getSize());
+            return null;
+        }
+
+        byte[] buffer = new byte[(int) Math.max(1, Math.min(entry.getSize(), ChunkStore.CHUNK_SIZE))];
+
+        try (InputStream stream = inputStream) {
+            while (true) {
+                int length = readChunk(stream, buffer);
+                if (length <= 0) break;
+
+                chunks.add(chunkStore.put(buffer, length));
+                size += length;
+
+                if (length < buffer.length) break;
+                if (buffer.length < ChunkStore.CHUNK_SIZE) buffer = new byte[ChunkStore.CHUNK_SIZE];
+            }
+        }
+
+        return new SnapshotFile(entry.getName(), size, entry.getLastModified(), chunks);
+    }
+
+    /**
+     * Searches an unchanged file in the snapshot that contains its last version
+     * @param entry The file that should be backed up
+     * @return the file from the previous snapshot or <code>null</code> if the file has to be read again
+     * @throws IOException An exception that will be thrown if the previous snapshot could not be read
+     */
+    private SnapshotFile findUnchanged(BackupEntry entry) throws IOException {
+        ManifestEntry manifestEntry = changeManifest.getUnchanged(entry);
+        if (manifestEntry == null || !manifestEntry.getSource().endsWith(".snap")) return null;
+
+        Map<String, SnapshotFile> snapshot = previousSnapshots.get(manifestEntry.getSource());
+        if (snapshot == null) {
+            snapshot = new HashMap<>();
+            for (SnapshotFile file : SnapshotManifest.read(new File(backupFolder, manifestEntry.getSource())).getFiles())
+                snapshot.put(file.getName(), file);
+            previousSnapshots.put(manifestEntry.getSource(), snapshot);
+        }
+
+        SnapshotFile previous = snapshot.get(entry.getName());
+        return previous != null && previous.getSize() == entry.getSize() ? previous : null;
+    }
+
+    /**
+     * Fills the buffer with the next bytes of the stream
+     * @param inputStream The stream you want to read from
+     * @param buffer The buffer you want to fill
+     * @return the amount of bytes that have been read
+     * @throws IOException An exception that will be thrown if the stream could not be read
+     */
+    private int readChunk(InputStream inputStream, byte[] buffer) throws IOException {
+        int length = 0;
+        while (length < buffer.length) {
+            int read = inputStream.read(buffer, length, buffer.length - length);
+            if (read == -1) break;
+            length += read;
+        }
+        return length;
+    }
+
+}
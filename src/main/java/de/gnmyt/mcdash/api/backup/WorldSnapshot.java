@@ -0,0 +1,218 @@
+package de.gnmyt.mcdash.api.backup;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import org.apache.commons.io.FileUtils;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class WorldSnapshot implements Closeable {
+
+    private static final Map<World, Integer> PAUSES = new HashMap<>();
+    private static final Map<World, Boolean> AUTO_SAVE = new HashMap<>();
+    private static final AtomicLong STAGING_ID = new AtomicLong();
+
+    private final Set<World> paused = new LinkedHashSet<>();
+    private final File stagingFolder;
+    private final File[] paths;
+
+    /**
+     * Basic constructor of the {@link WorldSnapshot}
+     * @param stagingFolder The folder the worlds get copied to
+     * @param paths The files and folders that should be backed up
+     */
+    private WorldSnapshot(File stagingFolder, File[] paths) {
+        this.stagingFolder = stagingFolder;
+        this.paths = paths.clone();
+    }
+
+    /**
+     * Creates a consistent snapshot of all loaded worlds that are part of the given paths.
+     * The worlds get saved on the main thread and autosave gets paused, so the server does not write any region file
+     * while the backup reads it. If staging is enabled, the world folders get copied into the staging folder and
+     * autosave gets resumed right afterwards, before the slow compression starts. Otherwise autosave stays paused
+     * until the snapshot gets closed. The copy is read through the throttle of the job and can be cancelled
+     *
+     * @param stagingFolder The folder the worlds should be copied to
+     * @param stage <code>true</code> if the worlds should be copied, otherwise <code>false</code>
+     * @param job The job the snapshot is created for
+     * @param paths The files and folders that should be backed up
+     * @return the created snapshot
+     * @throws IOException An exception that will be thrown if the worlds could not be saved or copied
+     */
+    public static WorldSnapshot create(File stagingFolder, boolean stage, BackupJob job, File... paths) throws IOException {
+        WorldSnapshot snapshot = new WorldSnapshot(new File(stagingFolder, System.currentTimeMillis() + "-" + STAGING_ID.incrementAndGet()), paths);
+
+        Map<Integer, World> worlds = new LinkedHashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            File worldFolder = world.getWorldFolder().getCanonicalFile();
+            for (int i = 0; i < paths.length; i++) {
+                if (paths[i].getCanonicalFile().equals(worldFolder)) worlds.put(i, world);
+            }
+        }
+
+        if (worlds.isEmpty()) return snapshot;
+
+        long startTime = System.nanoTime();
+
+        try {
+            callSync(() -> {
+                for (World world : worlds.values()) {
+                    if (!snapshot.paused.add(world)) continue;
+                    pauseAutoSave(world);
+                    world.save();
+                }
+                return null;
+            });
+
+            if (stage) {
+                for (Map.Entry<Integer, World> entry : worlds.entrySet()) {
+                    File source = paths[entry.getKey()];
+                    File target = new File(snapshot.stagingFolder, source.getName());
+                    copyFolder(job, source.toPath(), target.toPath());
+                    snapshot.paths[entry.getKey()] = target;
+                }
+
+                snapshot.resumeAutoSave();
+            }
+        } catch (IOException | RuntimeException e) {
+            snapshot.close();
+            throw e;
+        }
+
+        if (stage) MinecraftDashboard.getInstance().getLogger().info(String.format("Staged %d worlds for the backup, autosave was paused for %d ms",
+                worlds.size(), (System.nanoTime() - startTime) / 1000000));
+
+        return snapshot;
+    }
+
+    /**
+     * Gets the paths that should be backed up. Staged worlds are replaced by their copy
+     * @return the paths that should be backed up
+     */
+    public File[] getPaths() {
+        return paths;
+    }
+
+    /**
+     * Resumes the autosave of all paused worlds
+     * @throws IOException An exception that will be thrown if the main thread could not be reached
+     */
+    public void resumeAutoSave() throws IOException {
+        if (paused.isEmpty()) return;
+
+        callSync(() -> {
+            paused.forEach(WorldSnapshot::resumeAutoSave);
+            return null;
+        });
+        paused.clear();
+    }
+
+    /**
+     * Pauses the autosave of a world. Backups may run in parallel, so the pauses are counted and the original
+     * setting is only remembered by the first pause. Must be called on the main thread
+     * @param world The world whose autosave should be paused
+     */
+    private static void pauseAutoSave(World world) {
+        if (PAUSES.merge(world, 1, Integer::sum) > 1) return;
+
+        AUTO_SAVE.put(world, world.isAutoSave());
+        world.setAutoSave(false);
+    }
+
+    /**
+     * Resumes the autosave of a world once the last backup that paused it has resumed it. Must be called on the main thread
+     * @param world The world whose autosave should be resumed
+     */
+    private static void resumeAutoSave(World world) {
+        if (PAUSES.merge(world, -1, Integer::sum) > 0) return;
+
+        PAUSES.remove(world);
+        world.setAutoSave(AUTO_SAVE.remove(world));
+    }
+
+    /**
+     * Resumes the autosave and deletes the staged worlds
+     * @throws IOException An exception that will be thrown if the staged worlds could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            resumeAutoSave();
+        } finally {
+            if (stagingFolder.exists()) FileUtils.deleteDirectory(stagingFolder);
+        }
+    }
+
+    /**
+     * Copies a folder through the throttle of the job and keeps the modification times of all files
+     * @param job The job the folder is copied for
+     * @param source The folder that should be copied
+     * @param target The target folder
+     * @throws IOException An exception that will be thrown if the folder could not be copied or the job has been cancelled
+     */
+    private static void copyFolder(BackupJob job, Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (file.getFileName().toString().equals("session.lock")) return FileVisitResult.CONTINUE;
+
+                Path targetFile = target.resolve(source.relativize(file).toString());
+                try (InputStream inputStream = job.stage(Files.newInputStream(file))) {
+                    Files.copy(inputStream, targetFile);
+                }
+                Files.setLastModifiedTime(targetFile, attrs.lastModifiedTime());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Runs a task on the main thread and waits for it
+     * @param task The task that should be executed
+     * @throws IOException An exception that will be thrown if the task failed
+     */
+    private static void callSync(Callable<Void> task) throws IOException {
+        try {
+            if (Bukkit.isPrimaryThread()) {
+                task.call();
+            } else Bukkit.getScheduler().callSyncMethod(MinecraftDashboard.getInstance(), task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the main thread", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not save the worlds", e.getCause());
+        } catch (Exception e) {
+            throw new IOException("Could not save the worlds", e);
+        }
+    }
+
+}
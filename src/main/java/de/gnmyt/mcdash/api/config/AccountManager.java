@@ -60,6 +60,15 @@ public class AccountManager {
         return BCrypt.checkpw(password, config.getString("accounts." + username));
     }
 
+    /**
+     * Gets the BCrypt hash of the password of an account
+     * @param username The username of the account
+     * @return the hash of the password or <code>null</code> if the account does not exist
+     */
+    public String getPasswordHash(String username) {
+        return config.getString("accounts." + username);
+    }
+
     /**
      * Saves the configuration
      */
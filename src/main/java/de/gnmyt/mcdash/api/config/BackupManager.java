@@ -1,11 +1,16 @@
 package de.gnmyt.mcdash.api.config;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.RetentionPolicy;
+import de.gnmyt.mcdash.api.entities.BackupCodec;
+import de.gnmyt.mcdash.api.entities.BackupFormat;
+import de.gnmyt.mcdash.api.entities.BackupMode;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.ZoneId;
 
 public class BackupManager {
 
@@ -22,6 +27,24 @@ public class BackupManager {
         config = YamlConfiguration.loadConfiguration(file);
 
         if (!config.contains("path")) config.set("path", "backups");
+        if (!config.contains("storage")) config.set("storage", "zip");
+        if (!config.contains("stage_worlds")) config.set("stage_worlds", true);
+        if (!config.contains("compression_level")) config.set("compression_level", 6);
+        if (!config.contains("compression_threads")) config.set("compression_threads", 0);
+        if (!config.contains("parallel_jobs")) config.set("parallel_jobs", 1);
+        if (!config.contains("queued_jobs")) config.set("queued_jobs", 8);
+        if (!config.contains("io_limit")) config.set("io_limit", 0);
+        if (!config.contains("codec")) config.set("codec", "deflate");
+        if (!config.contains("zstd_level")) config.set("zstd_level", 3);
+
+        for (String rule : new String[]{"keep_last", "hourly", "daily", "weekly", "monthly", "max_size"}) {
+            if (!config.contains("retention." + rule)) config.set("retention." + rule, 0);
+        }
+
+        for (BackupMode mode : BackupMode.values()) {
+            String path = "mode_codecs." + mode.name().toLowerCase();
+            if (!config.contains(path)) config.set(path, "default");
+        }
 
         saveConfig();
     }
@@ -33,6 +56,101 @@ public class BackupManager {
      */
     public String getBackupPath() { return config.getString("path"); }
 
+    /**
+     * Gets the storage format of new backups
+     *
+     * @return the storage format (zip if the configured format is unknown). The codec decides
+     * which archive format zip backups are actually written in
+     */
+    public BackupFormat getStorageFormat() {
+        BackupFormat format = BackupFormat.fromName(config.getString("storage"));
+        return format != null ? format : BackupFormat.ZIP;
+    }
+
+    /**
+     * Checks if the worlds should be copied into a staging folder before they are compressed
+     *
+     * @return <code>true</code> if the worlds should be staged (autosave only gets paused while copying),
+     * <code>false</code> if autosave should stay paused until the backup has been written
+     */
+    public boolean isWorldStagingEnabled() { return config.getBoolean("stage_worlds"); }
+
+    /**
+     * Gets the deflate compression level of new backups
+     *
+     * @return the compression level (0-9, -1 for the default level)
+     */
+    public int getCompressionLevel() { return config.getInt("compression_level"); }
+
+    /**
+     * Gets the amount of threads that compress new backups
+     *
+     * @return the amount of threads (all available processors if the configured value is 0 or less)
+     */
+    public int getCompressionThreads() {
+        int threads = config.getInt("compression_threads");
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Gets the amount of backups that may be written at the same time
+     *
+     * @return the amount of parallel backup jobs
+     */
+    public int getParallelJobs() { return Math.max(1, config.getInt("parallel_jobs")); }
+
+    /**
+     * Gets the amount of backups that may wait for a free backup thread
+     *
+     * @return the size of the backup queue
+     */
+    public int getQueuedJobs() { return Math.max(1, config.getInt("queued_jobs")); }
+
+    /**
+     * Gets the maximum amount of bytes all backups may read per second
+     *
+     * @return the I/O limit in bytes per second (configured in MB/s, 0 for no limit)
+     */
+    public long getIoLimit() { return Math.max(0, config.getLong("io_limit")) * 1024 * 1024; }
+
+    /**
+     * Gets the codec of new zip backups. A mode can override the default codec in the mode_codecs section,
+     * if a backup contains multiple modes the first mode with its own codec wins
+     *
+     * @param modes The modes of the backup (e.g. <code>124</code>)
+     * @return the codec (deflate if the configured codec is unknown)
+     */
+    public BackupCodec getCodec(String modes) {
+        for (String mode : modes.split("")) {
+            BackupMode backupMode = mode.matches("\\d") ? BackupMode.fromMode(Integer.parseInt(mode)) : null;
+            if (backupMode == null) continue;
+
+            BackupCodec codec = BackupCodec.fromName(config.getString("mode_codecs." + backupMode.name().toLowerCase()));
+            if (codec != null) return codec;
+        }
+
+        BackupCodec codec = BackupCodec.fromName(config.getString("codec"));
+        return codec != null ? codec : BackupCodec.DEFLATE;
+    }
+
+    /**
+     * Gets the Zstandard compression level of new backups
+     *
+     * @return the compression level (1-22)
+     */
+    public int getZstdLevel() { return Math.max(1, Math.min(config.getInt("zstd_level"), 22)); }
+
+    /**
+     * Gets the retention policy of the backups. A value of 0 disables the rule,
+     * all backups are kept if every rule is disabled
+     *
+     * @return the retention policy (the maximum size is configured in MB)
+     */
+    public RetentionPolicy getRetentionPolicy() {
+        return new RetentionPolicy(config.getInt("retention.keep_last"), config.getInt("retention.hourly"),
+                config.getInt("retention.daily"), config.getInt("retention.weekly"), config.getInt("retention.monthly"),
+                config.getLong("retention.max_size") * 1024 * 1024, ZoneId.systemDefault());
+    }
 
     /**
      * Saves the configuration
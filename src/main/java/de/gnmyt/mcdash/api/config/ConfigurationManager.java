@@ -1,6 +1,7 @@
 package de.gnmyt.mcdash.api.config;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import org.apache.commons.lang.RandomStringUtils;
 import org.bukkit.configuration.file.FileConfiguration;
 
@@ -39,6 +40,17 @@ public class ConfigurationManager {
         config.set("default-username", "admin");
         config.set("default-password", "admin");
 
+        // Session tokens
+        config.set("session-lifetime", 720);
+
+        // Http execution pools
+        config.set("http.virtual-threads", false);
+        for (ExecutionClass executionClass : ExecutionClass.values()) {
+            config.set("http." + executionClass.getKey() + ".threads", executionClass.getDefaultThreads());
+            config.set("http." + executionClass.getKey() + ".queue", executionClass.getDefaultQueueSize());
+        }
+        config.set("http.slow-request-threshold", 1000);
+
         saveConfig();
     }
 
@@ -101,6 +113,47 @@ public class ConfigurationManager {
         return getInt("port");
     }
 
+    /**
+     * Gets the time a session token is valid
+     * @return the lifetime of a session token in minutes
+     */
+    public int getSessionLifetime() {
+        return Math.max(1, config.getInt("session-lifetime", 720));
+    }
+
+    /**
+     * Gets the amount of threads of a http pool
+     * @param executionClass The execution class of the pool
+     * @return the amount of threads
+     */
+    public int getHttpThreads(ExecutionClass executionClass) {
+        return Math.max(1, config.getInt("http." + executionClass.getKey() + ".threads", executionClass.getDefaultThreads()));
+    }
+
+    /**
+     * Gets the amount of requests that may wait for a free thread of a http pool
+     * @param executionClass The execution class of the pool
+     * @return the size of the queue
+     */
+    public int getHttpQueueSize(ExecutionClass executionClass) {
+        return Math.max(1, config.getInt("http." + executionClass.getKey() + ".queue", executionClass.getDefaultQueueSize()));
+    }
+
+    /**
+     * Checks if the requests should be executed in virtual threads (requires Java 21 or newer)
+     * @return <code>true</code> if virtual threads are enabled, otherwise <code>false</code>
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return config.getBoolean("http.virtual-threads", false);
+    }
+
+    /**
+     * Gets the time after which a request gets logged as slow
+     * @return the threshold in milliseconds or 0 if slow requests should not be logged
+     */
+    public int getSlowRequestThreshold() {
+        return Math.max(0, config.getInt("http.slow-request-threshold", 1000));
+    }
 
     /**
      * Saves the current configuration
@@ -95,6 +95,15 @@ public class SSHManager {
         saveConfig();
     }
 
+    /**
+     * Gets the controller of the SSH server
+     *
+     * @return the controller of the SSH server
+     */
+    public SSHController getController() {
+        return controller;
+    }
+
     /**
      * Saves the configuration
      */
@@ -1,33 +1,67 @@
 package de.gnmyt.mcdash.api.controller;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.BackupCatalog;
+import de.gnmyt.mcdash.api.backup.BackupInfo;
+import de.gnmyt.mcdash.api.backup.BackupJob;
+import de.gnmyt.mcdash.api.backup.BackupRestorer;
+import de.gnmyt.mcdash.api.backup.BackupWriter;
+import de.gnmyt.mcdash.api.backup.ChangeManifest;
+import de.gnmyt.mcdash.api.backup.ChunkStore;
+import de.gnmyt.mcdash.api.backup.RetentionPolicy;
+import de.gnmyt.mcdash.api.backup.SnapshotFile;
+import de.gnmyt.mcdash.api.backup.SnapshotManifest;
+import de.gnmyt.mcdash.api.backup.SnapshotWriter;
+import de.gnmyt.mcdash.api.backup.WorldSnapshot;
 import de.gnmyt.mcdash.api.config.BackupManager;
+import de.gnmyt.mcdash.api.entities.BackupCodec;
+import de.gnmyt.mcdash.api.entities.BackupFormat;
 import de.gnmyt.mcdash.panel.routes.filebrowser.FileRoute;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 import org.apache.commons.io.IOUtils;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
-import java.util.Objects;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Deflater;
 
 public class BackupController {
 
     private final BackupManager backupManager = MinecraftDashboard.getBackupManager();
     private final File backupFolder;
+    private final ChunkStore chunkStore;
+    private final ReadWriteLock chunkLock = new ReentrantReadWriteLock(true);
+    private final ChangeManifest changeManifest;
+    private final BackupCatalog catalog;
+    private final ExecutorService retentionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCDash-Retention");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Basic constructor of the {@link BackupController}
      */
     public BackupController() {
         this.backupFolder = new File(backupManager.getBackupPath());
+        this.chunkStore = new ChunkStore(new File(backupFolder, "chunks"), backupManager.getCompressionLevel());
 
         if (!backupFolder.exists()) backupFolder.mkdirs();
+
+        this.changeManifest = new ChangeManifest(new File(backupFolder, "manifest.dat"), backupFolder);
+        this.catalog = new BackupCatalog(backupFolder, new File(backupFolder, "catalog.dat"), MinecraftDashboard.getInstance().getLogger());
     }
 
     /**
@@ -36,119 +70,177 @@ public class BackupController {
      * @return <code>true</code> if the backup exists, otherwise <code>false</code>
      */
     public boolean backupExists(String name) {
-        if (getBackup(name) == null) return false;
-        return FileRoute.isValidFilePath(getBackup(name).getAbsolutePath());
+        File backup = getBackup(name);
+        return backup != null && FileRoute.isValidFilePath(backup.getAbsolutePath());
     }
 
     /**
-     * Zips a directory
-     * @param directory The directory to zip
-     * @param parent The parent of the directory
-     * @param zipOutputStream The zip output stream
+     * Creates a new backup. Loaded worlds are saved and staged before the backup gets written,
+     * files that have not changed since the previous backup are not read again
+     * @param job The job of the backup, it contains the modes and receives the progress
+     * @param paths The paths to back up
+     * @throws IOException An exception that will be thrown if the backup could not be created or has been cancelled
      */
-    private void zipDirectory(File directory, String parent, ZipOutputStream zipOutputStream) {
-        if (directory.getName().equals(backupFolder.getName())) return;
-        for (File file : Objects.requireNonNull(directory.listFiles())) {
-            if (file.isDirectory()) {
-                zipDirectory(file, parent + "/" + file.getName(), zipOutputStream);
-            } else {
-                try {
-                    zipOutputStream.putNextEntry(new ZipEntry(parent + "/" + file.getName()));
-                    zipOutputStream.write(IOUtils.toByteArray(Files.newInputStream(file.toPath())));
-                    zipOutputStream.closeEntry();
-                } catch (Exception ignored) { }
+    public void createBackup(BackupJob job, File... paths) throws IOException {
+        String modeSuffix = job.getModes();
+        BackupFormat format = backupManager.getStorageFormat();
+        BackupCodec codec = backupManager.getCodec(modeSuffix);
+
+        if (format != BackupFormat.SNAPSHOT) {
+            if (!codec.isAvailable()) {
+                MinecraftDashboard.getInstance().getLogger().warning("The backup codec " + codec.name().toLowerCase()
+                        + " is not available on this server, falling back to deflate");
+                codec = BackupCodec.DEFLATE;
             }
+            format = codec.getFormat();
         }
-    }
 
-    /**
-     * Writes a file to a zip output stream
-     * @param file The file to write
-     * @param zipOutputStream The zip output stream
-     */
-    private void zipFile(File file, ZipOutputStream zipOutputStream) {
+        File backupFile = new File(backupFolder, (new Date().getTime()) + "-" + modeSuffix + "." + format.getExtension());
+
+        String checksum;
+
+        if (format == BackupFormat.SNAPSHOT) chunkLock.readLock().lock();
         try {
-            zipOutputStream.putNextEntry(new ZipEntry(file.getName()));
-            zipOutputStream.write(IOUtils.toByteArray(Files.newInputStream(file.toPath())));
-            zipOutputStream.closeEntry();
-        } catch (Exception ignored) { }
+            job.checkCancelled();
+
+            try (WorldSnapshot snapshot = WorldSnapshot.create(new File(backupFolder, ".staging"),
+                    backupManager.isWorldStagingEnabled(), job, paths)) {
+                if (format == BackupFormat.SNAPSHOT) {
+                    new SnapshotWriter(backupFolder, chunkStore, changeManifest, backupManager.getCompressionThreads(),
+                            job, MinecraftDashboard.getInstance().getLogger()).write(backupFile, snapshot.getPaths());
+                    checksum = BackupCatalog.checksum(backupFile);
+                } else {
+                    int level = codec == BackupCodec.ZSTD ? backupManager.getZstdLevel() : backupManager.getCompressionLevel();
+                    checksum = new BackupWriter(backupFolder, changeManifest, codec, level, backupManager.getCompressionThreads(),
+                            job, MinecraftDashboard.getInstance().getLogger()).write(backupFile, snapshot.getPaths());
+                }
+            }
+        } finally {
+            if (format == BackupFormat.SNAPSHOT) chunkLock.readLock().unlock();
+        }
+
+        catalog.add(backupFile, checksum);
+        retentionExecutor.submit(this::pruneBackups);
     }
 
     /**
-     * Creates a new backup
-     * @param modeSuffix The modes of the backup
-     * @param paths The paths to back up
-     * @throws IOException An exception that will be thrown if the backup could not be created
+     * Deletes all backups that are not kept by the retention policy.
+     * Holds the chunk store exclusively, so no snapshot gets written while unreferenced chunks are deleted
      */
-    public void createBackup(String modeSuffix, File... paths) throws IOException {
-        File backupFile = new File(backupFolder, (new Date().getTime()) + "-" + modeSuffix + ".zip");
-
-        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(backupFile.toPath()))) {
-            for (File file : paths) {
-                if (file.exists()) {
-                    if (file.isDirectory()) {
-                        zipDirectory(file, file.getName(), zipOutputStream);
-                    } else zipFile(file, zipOutputStream);
+    public void pruneBackups() {
+        RetentionPolicy policy = backupManager.getRetentionPolicy();
+        if (!policy.isEnabled()) return;
+
+        chunkLock.writeLock().lock();
+        try {
+            List<BackupInfo> backups = getBackups();
+            Map<BackupInfo, List<String>> chunks = new HashMap<>();
+
+            try {
+                for (BackupInfo backup : backups) {
+                    if (backup.getFormat() != BackupFormat.SNAPSHOT) continue;
+
+                    List<String> snapshotChunks = new ArrayList<>();
+                    for (SnapshotFile file : SnapshotManifest.read(backup.getFile()).getFiles()) snapshotChunks.addAll(file.getChunks());
+                    chunks.put(backup, snapshotChunks);
                 }
+            } catch (IOException e) {
+                MinecraftDashboard.getInstance().getLogger().warning("Could not prune the backups: " + e.getMessage());
+                return;
             }
+
+            List<BackupInfo> removed = policy.select(backups, backup -> chunks.getOrDefault(backup, Collections.emptyList()),
+                    chunkStore::getSize);
+            if (removed.isEmpty()) return;
+
+            long bytes = 0;
+            boolean snapshots = false;
+
+            try {
+                for (BackupInfo backup : removed) {
+                    Files.deleteIfExists(backup.getFile().toPath());
+                    catalog.remove(backup.getFile());
+
+                    bytes += backup.getLength();
+                    snapshots |= backup.getFormat() == BackupFormat.SNAPSHOT;
+                }
+
+                if (snapshots) deleteUnreferencedChunks();
+            } catch (IOException e) {
+                MinecraftDashboard.getInstance().getLogger().warning("Could not prune the backups: " + e.getMessage());
+            }
+
+            MinecraftDashboard.getInstance().getLogger().info(String.format("Retention policy removed %d backups (%.1f MB)",
+                    removed.size(), bytes / 1024.0 / 1024.0));
+        } finally {
+            chunkLock.writeLock().unlock();
         }
     }
 
     /**
-     * Deletes a backup
+     * Deletes a backup. Deleting a snapshot also deletes all chunks that are not referenced by another snapshot.
+     * The chunks are deleted in the background, because a running snapshot has to finish first
      * @param name The name of the backup
      * @throws IOException An exception that will be thrown if the backup could not be deleted
      */
     public void deleteBackup(String name) throws IOException {
-        Files.deleteIfExists(getBackup(name).toPath());
+        File backup = getBackup(name);
+        Files.deleteIfExists(backup.toPath());
+        catalog.remove(backup);
+
+        if (BackupFormat.fromFileName(backup.getName()) == BackupFormat.SNAPSHOT) retentionExecutor.submit(() -> {
+            try {
+                deleteUnreferencedChunks();
+            } catch (IOException e) {
+                MinecraftDashboard.getInstance().getLogger().warning("Could not delete the unreferenced chunks: " + e.getMessage());
+            }
+        });
     }
 
     /**
-     * Clears all old folders (except the root folder)
-     * @param stream The stream of the backup
-     * @throws Exception An exception that will be thrown if the old folders could not be cleared
+     * Deletes all chunks that are not referenced by any snapshot
+     * @throws IOException An exception that will be thrown if a snapshot could not be read
      */
-    private void clearOldFolders(FileInputStream stream) throws Exception {
-        ZipInputStream zipInputStream = new ZipInputStream(stream);
-        ZipEntry zipEntry = zipInputStream.getNextEntry();
-
-        while (zipEntry != null) {
-            File file = new File(zipEntry.getName());
-
-            if (file.getParentFile() != null && file.getParentFile().exists() && !file.getParentFile().equals(new File(".")))
-                FileUtils.deleteDirectory(file.getParentFile());
+    private void deleteUnreferencedChunks() throws IOException {
+        chunkLock.writeLock().lock();
+        try {
+            Set<String> referenced = new HashSet<>();
+            for (BackupInfo backup : getBackups()) {
+                if (backup.getFormat() != BackupFormat.SNAPSHOT) continue;
+                for (SnapshotFile file : SnapshotManifest.read(backup.getFile()).getFiles()) referenced.addAll(file.getChunks());
+            }
 
-            zipEntry = zipInputStream.getNextEntry();
+            chunkStore.deleteUnreferenced(referenced);
+        } finally {
+            chunkLock.writeLock().unlock();
         }
     }
 
     /**
-     * Restores a backup
+     * Restores a backup. The files get extracted in parallel and verified before they replace the current files
      * @param name The name of the backup
      * @param haltAfterRestore <code>true</code> if the server should be halted after the restore, otherwise <code>false</code>
      */
     public void restoreBackup(String name, boolean haltAfterRestore) {
         if (!backupExists(name)) return;
-        byte[] buffer = new byte[1024];
 
         try {
-            clearOldFolders(new FileInputStream(getBackup(name)));
-
-            ZipInputStream zipInputStream = new ZipInputStream(Files.newInputStream(getBackup(name).toPath()));
-            ZipEntry zipEntry = zipInputStream.getNextEntry();
-
-            while (zipEntry != null) {
-                File newFile = new File(zipEntry.getName());
+            File backup = getBackup(name);
+            BackupRestorer restorer = new BackupRestorer(new File("."), backupFolder, chunkStore, backupManager.getCompressionThreads(),
+                    MinecraftDashboard.getInstance().getLogger());
 
-                if (newFile.getParentFile() != null) newFile.getParentFile().mkdirs();
+            BackupFormat format = BackupFormat.fromFileName(backup.getName());
 
-                FileOutputStream fileOutputStream = new FileOutputStream(newFile);
-                int len;
-                while ((len = zipInputStream.read(buffer)) > 0) fileOutputStream.write(buffer, 0, len);
-                fileOutputStream.close();
-
-                zipEntry = zipInputStream.getNextEntry();
-            }
+            if (format == BackupFormat.SNAPSHOT) {
+                chunkLock.readLock().lock();
+                try {
+                    restorer.restoreSnapshot(backup);
+                } finally {
+                    chunkLock.readLock().unlock();
+                }
+            } else if (format == BackupFormat.ZIP) {
+                restorer.restoreZip(backup);
+            } else restorer.restoreTar(backup, BackupCodec.fromFormat(format));
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -156,15 +248,52 @@ public class BackupController {
         if (haltAfterRestore) Runtime.getRuntime().halt(0);
     }
 
+    /**
+     * Writes a snapshot as a zip file into the given stream. The files are only stored, because the chunks
+     * have already been compressed and compressing them again would only cost time. The chunk store is locked
+     * while the zip gets written, so no chunk of the snapshot can be deleted in the meantime
+     * @param name The name of the backup
+     * @param outputStream The stream the zip file should be written to
+     * @throws IOException An exception that will be thrown if the backup could not be written
+     */
+    public void writeZip(String name, OutputStream outputStream) throws IOException {
+        chunkLock.readLock().lock();
+        try (ZipArchiveOutputStream zipOutputStream = new ZipArchiveOutputStream(outputStream)) {
+            zipOutputStream.setLevel(Deflater.NO_COMPRESSION);
+
+            for (SnapshotFile file : SnapshotManifest.read(getBackup(name)).getFiles()) {
+                ZipArchiveEntry entry = new ZipArchiveEntry(file.getName());
+                entry.setTime(file.getLastModified());
+                zipOutputStream.putArchiveEntry(entry);
+
+                for (String chunk : file.getChunks()) {
+                    try (InputStream inputStream = chunkStore.open(chunk)) {
+                        IOUtils.copy(inputStream, zipOutputStream);
+                    }
+                }
+
+                zipOutputStream.closeArchiveEntry();
+            }
+        } finally {
+            chunkLock.readLock().unlock();
+        }
+    }
+
     /**
      * Gets all backups
-     * @return A list of all backups
+     * @return A list of all backups, sorted by their id
      */
-    public ArrayList<File> getBackups() {
-        File[] backupFiles = FileUtils.listFiles(backupFolder, new String[]{"zip"}, true).toArray(new File[0]);
-        Arrays.sort(backupFiles);
+    public List<BackupInfo> getBackups() {
+        return catalog.getBackups();
+    }
 
-        return new ArrayList<>(Arrays.asList(backupFiles));
+    /**
+     * Gets the catalog entry of a backup
+     * @param name The name of the backup
+     * @return the catalog entry or <code>null</code> if the backup does not exist
+     */
+    public BackupInfo getBackupInfo(String name) {
+        return catalog.get(name);
     }
 
     /**
@@ -173,10 +302,21 @@ public class BackupController {
      * @return The backup
      */
     public File getBackup(String name) {
-        FileFilter fileFilter = file -> file.getName().startsWith(name + "-") && file.getName().endsWith(".zip");
-        File[] backupFiles = backupFolder.listFiles(fileFilter);
-        if (backupFiles == null || backupFiles.length == 0) return null;
-        return backupFiles[0];
+        BackupInfo info = catalog.get(name);
+        return info != null ? info.getFile() : null;
+    }
+
+    /**
+     * Stops watching the backup folder and the retention policy
+     */
+    public void shutdown() {
+        retentionExecutor.shutdownNow();
+
+        try {
+            catalog.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
 }
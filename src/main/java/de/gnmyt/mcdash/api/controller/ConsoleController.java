@@ -0,0 +1,252 @@
+package de.gnmyt.mcdash.api.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ObjLongConsumer;
+
+public class ConsoleController {
+
+    private static final int INDEX_INTERVAL = 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path logFile;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private long[] checkpoints = new long[64];
+    private int checkpointCount = 0;
+
+    private long indexedBytes = 0;
+    private long indexedLines = 0;
+    private Object fileKey;
+
+    private long tailBytes = 0;
+    private long tailLines = 0;
+
+    /**
+     * Basic constructor of the {@link ConsoleController}
+     */
+    public ConsoleController() {
+        this(Paths.get("logs/latest.log"));
+    }
+
+    /**
+     * Advanced constructor of the {@link ConsoleController}
+     * @param logFile The log file that should be indexed
+     */
+    public ConsoleController(Path logFile) {
+        this.logFile = logFile;
+        resetIndex();
+    }
+
+    /**
+     * Checks if the log file exists
+     * @return <code>true</code> if the log file exists, otherwise <code>false</code>
+     */
+    public boolean logExists() {
+        return Files.exists(logFile);
+    }
+
+    /**
+     * Gets the path of the log file
+     * @return the path of the log file
+     */
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Reads a range of lines from the log file.
+     * Only the bytes between the nearest indexed line and the last requested line are read from the disk
+     *
+     * @param startLine The first line you want to read (starting at 1)
+     * @param limit The maximum amount of lines you want to read
+     * @return the requested lines joined by a line break
+     * @throws IOException An exception that will be thrown if the log file could not be read
+     */
+    public synchronized String readLines(long startLine, int limit) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            updateIndex(channel);
+
+            if (startLine - 1 > indexedLines) return "";
+
+            long targetLine = startLine - 1;
+            int checkpoint = (int) Math.min(targetLine / INDEX_INTERVAL, checkpointCount - 1);
+            long position = checkpoints[checkpoint];
+            long linesToSkip = targetLine - (long) checkpoint * INDEX_INTERVAL;
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            StringBuilder log = new StringBuilder();
+            int linesRead = 0;
+
+            buffer.clear();
+            channel.position(position);
+
+            while (linesRead < limit && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining() && linesRead < limit) {
+                    byte current = buffer.get();
+                    if (linesToSkip > 0) {
+                        if (current == '\n') linesToSkip--;
+                        continue;
+                    }
+
+                    if (current == '\n') {
+                        appendLine(log, line, linesRead++);
+                    } else line.write(current);
+                }
+                buffer.clear();
+            }
+
+            if (linesRead < limit && line.size() > 0) appendLine(log, line, linesRead);
+
+            return log.toString();
+        }
+    }
+
+    /**
+     * Gets the amount of complete lines in the log file
+     * @return the amount of complete lines in the log file
+     * @throws IOException An exception that will be thrown if the log file could not be read
+     */
+    public synchronized long getLineCount() throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            updateIndex(channel);
+            return indexedLines;
+        }
+    }
+
+    /**
+     * Reads all complete lines that have been appended since the last call.
+     * The tail starts at the beginning of the log again if the log has been rotated
+     *
+     * @param consumer The consumer that receives every new line together with its line number (starting at 1)
+     * @throws IOException An exception that will be thrown if the log file could not be read
+     */
+    public synchronized void readNewLines(ObjLongConsumer<String> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            updateIndex(channel);
+            if (tailBytes >= indexedBytes) return;
+
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            buffer.clear();
+            channel.position(tailBytes);
+
+            while (tailBytes < indexedBytes && channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining() && tailBytes < indexedBytes) {
+                    byte current = buffer.get();
+                    tailBytes++;
+
+                    if (current == '\n') {
+                        consumer.accept(new String(line.toByteArray(), StandardCharsets.UTF_8), ++tailLines);
+                        line.reset();
+                    } else line.write(current);
+                }
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * Moves the tail to the end of the log, so that only lines written after this call are read by {@link #readNewLines}
+     * @throws IOException An exception that will be thrown if the log file could not be read
+     */
+    public synchronized void skipToEnd() throws IOException {
+        if (!logExists()) return;
+
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            updateIndex(channel);
+            tailBytes = indexedBytes;
+            tailLines = indexedLines;
+        }
+    }
+
+    /**
+     * Gets the number of the last line that has been read by the tail
+     * @return the number of the last line that has been read by the tail
+     */
+    public synchronized long getTailLine() {
+        return tailLines;
+    }
+
+    /**
+     * Appends a decoded line to the log
+     * @param log The log you want to append the line to
+     * @param line The raw bytes of the line
+     * @param index The index of the line in the current response
+     */
+    private void appendLine(StringBuilder log, ByteArrayOutputStream line, int index) {
+        if (index != 0) log.append("\n");
+        log.append(new String(line.toByteArray(), StandardCharsets.UTF_8));
+        line.reset();
+    }
+
+    /**
+     * Scans all bytes that have been appended since the last call and records a checkpoint
+     * every {@link #INDEX_INTERVAL} lines. Resets the index if the log has been rotated
+     * @param channel The opened channel of the log file
+     * @throws IOException An exception that will be thrown if the log file could not be read
+     */
+    private void updateIndex(FileChannel channel) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(logFile, BasicFileAttributes.class);
+        long size = channel.size();
+
+        if (size < indexedBytes || !Objects.equals(attributes.fileKey(), fileKey)) {
+            resetIndex();
+            tailBytes = 0;
+            tailLines = 0;
+            fileKey = attributes.fileKey();
+        }
+
+        if (size == indexedBytes) return;
+
+        buffer.clear();
+        long position = indexedBytes;
+
+        while (position < size) {
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() != '\n') continue;
+
+                indexedLines++;
+                indexedBytes = position;
+                if (indexedLines % INDEX_INTERVAL == 0) addCheckpoint(position);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Adds a new checkpoint to the index
+     * @param offset The byte offset of the first line after the checkpoint
+     */
+    private void addCheckpoint(long offset) {
+        if (checkpointCount == checkpoints.length) checkpoints = Arrays.copyOf(checkpoints, checkpoints.length * 2);
+        checkpoints[checkpointCount++] = offset;
+    }
+
+    /**
+     * Resets the index of the log file. The tail is kept, it only gets reset if the log has been rotated
+     */
+    private void resetIndex() {
+        checkpointCount = 0;
+        indexedBytes = 0;
+        indexedLines = 0;
+        addCheckpoint(0);
+    }
+
+}
@@ -12,11 +12,14 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SSHController {
 
     private SshServer sshServer;
     private final Path hostKey;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger peakSessions = new AtomicInteger();
 
     /**
      * Basic constructor of the {@link SSHController}
@@ -35,7 +38,7 @@ public class SSHController {
         if (sshServer != null) sshServer.stop();
 
         sshServer = SshServer.setUpDefaultServer();
-        sshServer.setShellFactory(new MCShellFactory());
+        sshServer.setShellFactory(new MCShellFactory(this));
         sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(hostKey));
 
         sshServer.setFileSystemFactory(new VirtualFileSystemFactory(Paths.get(".").toAbsolutePath().normalize()));
@@ -56,4 +59,35 @@ public class SSHController {
         sshServer = null;
     }
 
+    /**
+     * Registers a newly opened shell session
+     */
+    public void sessionOpened() {
+        int sessions = activeSessions.incrementAndGet();
+        peakSessions.accumulateAndGet(sessions, Math::max);
+    }
+
+    /**
+     * Unregisters a closed shell session
+     */
+    public void sessionClosed() {
+        activeSessions.decrementAndGet();
+    }
+
+    /**
+     * Gets the amount of currently open shell sessions
+     * @return the amount of currently open shell sessions
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * Gets the highest amount of shell sessions that have been open at the same time
+     * @return the highest amount of shell sessions that have been open at the same time
+     */
+    public int getPeakSessions() {
+        return peakSessions.get();
+    }
+
 }
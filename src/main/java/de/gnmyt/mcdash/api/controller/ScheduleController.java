@@ -1,7 +1,9 @@
 package de.gnmyt.mcdash.api.controller;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.BackupJob;
 import de.gnmyt.mcdash.api.config.ScheduleManager;
+import de.gnmyt.mcdash.api.entities.BackupJobState;
 import de.gnmyt.mcdash.api.entities.Schedule;
 import de.gnmyt.mcdash.api.entities.ScheduleAction;
 import de.gnmyt.mcdash.api.entities.ScheduleExecution;
@@ -125,8 +127,12 @@ public class ScheduleController {
                                 MinecraftDashboard.getInstance().getServer().shutdown();
                                 break;
                             case CREATE_BACKUP:
-                                MinecraftDashboard.getBackupController().createBackup(action.getPayload(),
+                                BackupJob job = MinecraftDashboard.getBackupJobManager().submit(action.getPayload(),
                                         BackupRoute.getBackupDirectories(action.getPayload()).toArray(new File[0]));
+                                job.await();
+
+                                if (job.getState() != BackupJobState.COMPLETED)
+                                    Bukkit.getLogger().warning("The backup of a schedule has not been completed: " + job.getState());
                                 break;
                             case KICK_ALL_PLAYERS:
                                 Bukkit.getScheduler().callSyncMethod(MinecraftDashboard.getInstance(), () -> {
@@ -0,0 +1,182 @@
+package de.gnmyt.mcdash.api.controller;
+
+import de.gnmyt.mcdash.api.config.AccountManager;
+import de.gnmyt.mcdash.api.config.ConfigurationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class SessionController {
+
+    private static final long CREDENTIAL_CACHE_TIME = TimeUnit.MINUTES.toMillis(5);
+
+    private final AccountManager accountManager;
+    private final ConfigurationManager config;
+    private final byte[] key = new byte[32];
+    private final Map<String, CachedCredentials> credentialCache = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Basic constructor of the {@link SessionController}
+     * Generates a new signing key, so all tokens become invalid when the plugin gets reloaded
+     * @param accountManager The account manager the credentials are checked against
+     * @param config The configuration of the dashboard
+     */
+    public SessionController(AccountManager accountManager, ConfigurationManager config) {
+        this.accountManager = accountManager;
+        this.config = config;
+        new SecureRandom().nextBytes(key);
+    }
+
+    /**
+     * Checks the credentials of a user. Accounts are checked with BCrypt the first time,
+     * successful checks are remembered for a few minutes as a keyed hash, so polling clients do not hash on every request
+     * @param username The username to check
+     * @param password The password to check
+     * @return <code>true</code> if the credentials are valid, otherwise <code>false</code>
+     */
+    public boolean isValidCredentials(String username, String password) {
+        if (accountManager.accountExists(username)) {
+            String passwordHash = accountManager.getPasswordHash(username);
+            byte[] signature = sign(username + ":" + password);
+
+            CachedCredentials cached = credentialCache.get(username);
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()
+                    && cached.passwordHash.equals(passwordHash) && MessageDigest.isEqual(cached.signature, signature))
+                return true;
+
+            if (!accountManager.isValidPassword(username, password)) return false;
+
+            credentialCache.put(username, new CachedCredentials(signature, passwordHash,
+                    System.currentTimeMillis() + CREDENTIAL_CACHE_TIME));
+            return true;
+        }
+
+        if (config.hasDefaultCredentials()) {
+            return MessageDigest.isEqual(username.getBytes(StandardCharsets.UTF_8), config.getDefaultUsername().getBytes(StandardCharsets.UTF_8))
+                    && MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), config.getDefaultPassword().getBytes(StandardCharsets.UTF_8));
+        }
+
+        return false;
+    }
+
+    /**
+     * Creates a new session token. The token contains the username and the expiration time
+     * and is signed with the key of the controller and the current password of the user,
+     * so it becomes invalid as soon as the password gets changed
+     * @param username The name of the user
+     * @return the session token
+     */
+    public String createToken(String username) {
+        long expiresAt = System.currentTimeMillis() + getLifetime();
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + "." + expiresAt;
+
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signToken(payload, username));
+    }
+
+    /**
+     * Validates a session token
+     * @param token The session token
+     * @return the name of the user or <code>null</code> if the token is invalid, expired or revoked
+     */
+    public String validateToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) return null;
+
+        try {
+            String username = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
+            if (Long.parseLong(parts[1]) < System.currentTimeMillis()) return null;
+
+            byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+            if (!MessageDigest.isEqual(signature, signToken(parts[0] + "." + parts[1], username))) return null;
+            if (revokedTokens.containsKey(token)) return null;
+
+            return username;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Revokes a session token, so it can not be used anymore
+     * @param token The session token
+     */
+    public void revokeToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) return;
+
+        try {
+            revokedTokens.put(token, Long.parseLong(parts[1]));
+        } catch (NumberFormatException ignored) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+    }
+
+    /**
+     * Gets the time a session token is valid
+     * @return the lifetime of a session token in milliseconds
+     */
+    public long getLifetime() {
+        return TimeUnit.MINUTES.toMillis(config.getSessionLifetime());
+    }
+
+    /**
+     * Signs the payload of a session token
+     * @param payload The payload of the token
+     * @param username The name of the user
+     * @return the signature of the token
+     */
+    private byte[] signToken(String payload, String username) {
+        String secret = accountManager.accountExists(username) ? accountManager.getPasswordHash(username)
+                : config.hasDefaultCredentials() && config.getDefaultUsername().equals(username) ? config.getDefaultPassword() : "";
+
+        return sign(payload + ":" + secret);
+    }
+
+    /**
+     * Creates the HMAC-SHA256 signature of a value with the key of the controller
+     * @param value The value that should be signed
+     * @return the signature
+     */
+    private byte[] sign(String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class CachedCredentials {
+
+        private final byte[] signature;
+        private final String passwordHash;
+        private final long expiresAt;
+
+        /**
+         * Basic constructor of the {@link CachedCredentials}
+         * @param signature The keyed hash of the username and the password
+         * @param passwordHash The BCrypt hash the password has been checked against
+         * @param expiresAt The time the cached credentials expire
+         */
+        CachedCredentials(byte[] signature, String passwordHash, long expiresAt) {
+            this.signature = signature;
+            this.passwordHash = passwordHash;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -1,16 +1,16 @@
 package de.gnmyt.mcdash.api.controller;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
-import de.gnmyt.mcdash.api.tasks.TPSRunnable;
-import org.apache.commons.io.FileUtils;
-import org.bukkit.Bukkit;
+import de.gnmyt.mcdash.api.tasks.DiskUsageTracker;
+import de.gnmyt.mcdash.api.entities.TickStats;
+import de.gnmyt.mcdash.api.entities.TickWindow;
+import de.gnmyt.mcdash.api.tasks.TickProfiler;
 
 import java.io.File;
 
 public class StatsController {
 
     private final File SERVER_FOLDER = new File(".");
-    private final TPSRunnable TPS_RUNNABLE = new TPSRunnable();
 
     private final MinecraftDashboard instance;
 
@@ -20,23 +20,23 @@ public class StatsController {
      */
     public StatsController(MinecraftDashboard instance) {
         this.instance = instance;
-        startTPSRunnable();
     }
 
     /**
-     * Starts the {@link TPSRunnable}
-     * The runnable gets the current tps from the server
+     * Gets the current tps (of the last 5 seconds)
+     * @return the current tps
      */
-    private void startTPSRunnable() {
-        Bukkit.getScheduler().scheduleSyncRepeatingTask(instance, TPS_RUNNABLE, 0, 1);
+    public long getTPS() {
+        return Math.round(getTickStats(TickWindow.FIVE_SECONDS).getTps());
     }
 
     /**
-     * Gets the current tps
-     * @return the current tps
+     * Gets the tick statistics of a window, measured by the {@link TickProfiler}
+     * @param window The window of the statistics
+     * @return the tick statistics
      */
-    public long getTPS() {
-        return TPS_RUNNABLE.getCurrentRoundedTPS();
+    public TickStats getTickStats(TickWindow window) {
+        return MinecraftDashboard.getTickProfiler().getStats(window);
     }
 
     /**
@@ -81,10 +81,11 @@ public class StatsController {
 
     /**
      * Gets the used amount of space from the server
+     * The size is tracked in the background by the {@link DiskUsageTracker}
      * @return the used amount of space from the server
      */
     public long getUsedSpace() {
-        return FileUtils.sizeOfDirectory(SERVER_FOLDER);
+        return MinecraftDashboard.getDiskUsageTracker().getTotalSize();
     }
 
     /**
@@ -0,0 +1,132 @@
+package de.gnmyt.mcdash.api.entities;
+
+import org.apache.commons.compress.compressors.deflate.DeflateCompressorInputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateCompressorOutputStream;
+import org.apache.commons.compress.compressors.deflate.DeflateParameters;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public enum BackupCodec {
+
+    /**
+     * Stores the files uncompressed in a zip file. The fastest codec for files that barely compress (e.g. region files)
+     */
+    STORE(BackupFormat.ZIP),
+
+    /**
+     * Compresses the files with deflate in a zip file. Slow, but every zip tool can open these backups
+     */
+    DEFLATE(BackupFormat.ZIP),
+
+    /**
+     * Compresses a tar archive with Zstandard. Requires the native zstd-jni library
+     */
+    ZSTD(BackupFormat.TAR_ZSTD),
+
+    /**
+     * Compresses a tar archive with LZ4. Very fast, but compresses less than the other codecs
+     */
+    LZ4(BackupFormat.TAR_LZ4);
+
+    private final BackupFormat format;
+
+    /**
+     * Constructor of the {@link BackupCodec}
+     * @param format The format of the backups that are written with this codec
+     */
+    BackupCodec(BackupFormat format) {
+        this.format = format;
+    }
+
+    /**
+     * Gets the format of the backups that are written with this codec
+     * @return the format of the backups that are written with this codec
+     */
+    public BackupFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * Checks if the codec can be used on this server
+     * @return <code>true</code> if the codec is available, otherwise <code>false</code>
+     */
+    public boolean isAvailable() {
+        return this != ZSTD || ZstdUtils.isZstdCompressionAvailable();
+    }
+
+    /**
+     * Wraps a stream, so everything that gets written to it will be compressed with this codec
+     * @param outputStream The stream the compressed data should be written to
+     * @param level The compression level (0-9 for deflate, 1-22 for zstd, ignored by the other codecs)
+     * @return the compressing stream
+     * @throws IOException An exception that will be thrown if the codec is not available
+     */
+    public OutputStream compress(OutputStream outputStream, int level) throws IOException {
+        switch (this) {
+            case DEFLATE:
+                DeflateParameters parameters = new DeflateParameters();
+                parameters.setCompressionLevel(level);
+                parameters.setWithZlibHeader(false);
+                return new DeflateCompressorOutputStream(outputStream, parameters);
+            case ZSTD:
+                if (!isAvailable()) throw new IOException("Zstandard is not available on this server");
+                return new ZstdCompressorOutputStream(outputStream, level, false, true);
+            case LZ4:
+                return new FramedLZ4CompressorOutputStream(outputStream);
+            default:
+                return outputStream;
+        }
+    }
+
+    /**
+     * Wraps a stream, so everything that gets read from it will be decompressed with this codec
+     * @param inputStream The stream that contains the compressed data
+     * @return the decompressing stream
+     * @throws IOException An exception that will be thrown if the codec is not available
+     */
+    public InputStream decompress(InputStream inputStream) throws IOException {
+        switch (this) {
+            case DEFLATE:
+                DeflateParameters parameters = new DeflateParameters();
+                parameters.setWithZlibHeader(false);
+                return new DeflateCompressorInputStream(inputStream, parameters);
+            case ZSTD:
+                if (!isAvailable()) throw new IOException("Zstandard is not available on this server");
+                return new ZstdCompressorInputStream(inputStream);
+            case LZ4:
+                return new FramedLZ4CompressorInputStream(inputStream);
+            default:
+                return inputStream;
+        }
+    }
+
+    /**
+     * Gets the {@link BackupCodec} that compresses a tar backup of the given format
+     * @param format The format of the backup
+     * @return the {@link BackupCodec} or <code>null</code> if the format is no compressed tar archive
+     */
+    public static BackupCodec fromFormat(BackupFormat format) {
+        if (format == BackupFormat.TAR_ZSTD) return ZSTD;
+        if (format == BackupFormat.TAR_LZ4) return LZ4;
+        return null;
+    }
+
+    /**
+     * Gets the {@link BackupCodec} from the given name
+     * @param name The name of the codec (e.g. <code>deflate</code> or <code>zstd</code>)
+     * @return the {@link BackupCodec} or <code>null</code> if no codec has been found
+     */
+    public static BackupCodec fromName(String name) {
+        for (BackupCodec codec : values()) {
+            if (codec.name().equalsIgnoreCase(name)) return codec;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package de.gnmyt.mcdash.api.entities;
+
+public enum BackupFormat {
+
+    /**
+     * Stores every backup as a full zip file
+     */
+    ZIP("zip"),
+
+    /**
+     * Stores every backup as a manifest that references deduplicated chunks in a shared chunk store
+     */
+    SNAPSHOT("snap"),
+
+    /**
+     * Stores every backup as a tar archive that is compressed with Zstandard
+     */
+    TAR_ZSTD("tar.zst"),
+
+    /**
+     * Stores every backup as a tar archive that is compressed with LZ4
+     */
+    TAR_LZ4("tar.lz4");
+
+    private final String extension;
+
+    /**
+     * Constructor of the {@link BackupFormat}
+     * @param extension The file extension of the backups in this format
+     */
+    BackupFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Gets the file extension of the backups in this format
+     * @return the file extension of the backups in this format
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Gets the {@link BackupFormat} of the given backup file
+     * @param fileName The name of the backup file
+     * @return the {@link BackupFormat} of the backup file or <code>null</code> if the file is no backup
+     */
+    public static BackupFormat fromFileName(String fileName) {
+        for (BackupFormat format : values()) {
+            if (fileName.endsWith("." + format.getExtension())) return format;
+        }
+        return null;
+    }
+
+    /**
+     * Removes the extension of the backup format from the name of a backup file
+     * @param fileName The name of the backup file
+     * @return the name of the backup without its extension
+     */
+    public static String stripExtension(String fileName) {
+        BackupFormat format = fromFileName(fileName);
+        if (format == null) return fileName;
+        return fileName.substring(0, fileName.length() - format.getExtension().length() - 1);
+    }
+
+    /**
+     * Gets the {@link BackupFormat} from the given name
+     * @param name The name of the format (e.g. <code>zip</code> or <code>snapshot</code>)
+     * @return the {@link BackupFormat} or <code>null</code> if no format has been found
+     */
+    public static BackupFormat fromName(String name) {
+        for (BackupFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) return format;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package de.gnmyt.mcdash.api.entities;
+
+public enum BackupJobState {
+
+    /**
+     * The job waits for a free backup thread
+     */
+    QUEUED,
+
+    /**
+     * The backup is being written
+     */
+    RUNNING,
+
+    /**
+     * The backup has been created
+     */
+    COMPLETED,
+
+    /**
+     * The backup could not be created
+     */
+    FAILED,
+
+    /**
+     * The job has been cancelled
+     */
+    CANCELLED;
+
+    /**
+     * Checks if the job has finished
+     * @return <code>true</code> if the job is completed, failed or cancelled, otherwise <code>false</code>
+     */
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
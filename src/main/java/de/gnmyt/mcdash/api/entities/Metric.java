@@ -0,0 +1,74 @@
+package de.gnmyt.mcdash.api.entities;
+
+public enum Metric {
+
+    /**
+     * The ticks per second of the server
+     */
+    TPS("tps"),
+
+    /**
+     * The mean tick time in milliseconds
+     */
+    MSPT("mspt"),
+
+    /**
+     * The used heap memory in bytes
+     */
+    HEAP("heap"),
+
+    /**
+     * The time the garbage collectors took since the last sample in milliseconds
+     */
+    GC("gc"),
+
+    /**
+     * The cpu usage of the server process in percent
+     */
+    CPU("cpu"),
+
+    /**
+     * The amount of online players
+     */
+    PLAYERS("players"),
+
+    /**
+     * The amount of loaded chunks in all worlds
+     */
+    CHUNKS("chunks"),
+
+    /**
+     * The amount of entities in all worlds
+     */
+    ENTITIES("entities");
+
+    private final String key;
+
+    /**
+     * Basic constructor of the {@link Metric}
+     * @param key The key of the metric used in the api
+     */
+    Metric(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the key of the metric used in the api
+     * @return the key of the metric
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets a metric by its key
+     * @param key The key of the metric
+     * @return the metric or <code>null</code> if no metric with this key exists
+     */
+    public static Metric fromKey(String key) {
+        for (Metric metric : values()) {
+            if (metric.key.equalsIgnoreCase(key)) return metric;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package de.gnmyt.mcdash.api.entities;
+
+import java.util.concurrent.TimeUnit;
+
+public enum MetricResolution {
+
+    /**
+     * Every sample, kept for one hour
+     */
+    RAW("raw", TimeUnit.SECONDS.toMillis(5), 720),
+
+    /**
+     * The samples of every minute, kept for one day
+     */
+    MINUTE("minute", TimeUnit.MINUTES.toMillis(1), 1440),
+
+    /**
+     * The samples of every hour, kept for 30 days
+     */
+    HOUR("hour", TimeUnit.HOURS.toMillis(1), 720);
+
+    private final String key;
+    private final long interval;
+    private final int capacity;
+
+    /**
+     * Basic constructor of the {@link MetricResolution}
+     * @param key The key of the resolution used in the api
+     * @param interval The time between two points in milliseconds
+     * @param capacity The maximum amount of points that are kept
+     */
+    MetricResolution(String key, long interval, int capacity) {
+        this.key = key;
+        this.interval = interval;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Gets the key of the resolution used in the api
+     * @return the key of the resolution
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the time between two points
+     * @return the time between two points in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    /**
+     * Gets the maximum amount of points that are kept
+     * @return the maximum amount of points
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the time span that is kept
+     * @return the time span in milliseconds
+     */
+    public long getRetention() {
+        return interval * capacity;
+    }
+
+    /**
+     * Gets a resolution by its key
+     * @param key The key of the resolution
+     * @return the resolution or <code>null</code> if no resolution with this key exists
+     */
+    public static MetricResolution fromKey(String key) {
+        for (MetricResolution resolution : values()) {
+            if (resolution.key.equalsIgnoreCase(key)) return resolution;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package de.gnmyt.mcdash.api.entities;
+
+public class SlowRequest {
+
+    private final long time;
+    private final String method;
+    private final String path;
+    private final String username;
+    private final int status;
+    private final double queueTime;
+    private final double handlerTime;
+
+    /**
+     * Basic constructor of the {@link SlowRequest}
+     * @param time The time the request has been finished at in milliseconds
+     * @param method The http method of the request
+     * @param path The path of the request (without the query)
+     * @param username The name of the authenticated user or <code>null</code> if the request was not authenticated
+     * @param status The status code of the response
+     * @param queueTime The time the request waited for a free thread in milliseconds
+     * @param handlerTime The time the route needed to handle the request in milliseconds
+     */
+    public SlowRequest(long time, String method, String path, String username, int status, double queueTime, double handlerTime) {
+        this.time = time;
+        this.method = method;
+        this.path = path;
+        this.username = username;
+        this.status = status;
+        this.queueTime = queueTime;
+        this.handlerTime = handlerTime;
+    }
+
+    /**
+     * Gets the time the request has been finished at
+     * @return the time in milliseconds
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the http method of the request
+     * @return the http method of the request
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the path of the request
+     * @return the path of the request
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Gets the name of the authenticated user
+     * @return the name of the user or <code>null</code> if the request was not authenticated
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the status code of the response
+     * @return the status code of the response
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the time the request waited for a free thread
+     * @return the queue time in milliseconds
+     */
+    public double getQueueTime() {
+        return queueTime;
+    }
+
+    /**
+     * Gets the time the route needed to handle the request
+     * @return the handler time in milliseconds
+     */
+    public double getHandlerTime() {
+        return handlerTime;
+    }
+}
@@ -0,0 +1,99 @@
+package de.gnmyt.mcdash.api.entities;
+
+public class TickStats {
+
+    private final int ticks;
+    private final int slowTicks;
+    private final double tps;
+    private final double mean;
+    private final double p50;
+    private final double p95;
+    private final double p99;
+    private final double max;
+
+    /**
+     * Basic constructor of the {@link TickStats}
+     * @param ticks The amount of ticks in the window
+     * @param slowTicks The amount of ticks that took longer than 50ms
+     * @param tps The ticks per second in the window
+     * @param mean The mean tick time in milliseconds
+     * @param p50 The median tick time in milliseconds
+     * @param p95 The 95th percentile of the tick time in milliseconds
+     * @param p99 The 99th percentile of the tick time in milliseconds
+     * @param max The longest tick time in milliseconds
+     */
+    public TickStats(int ticks, int slowTicks, double tps, double mean, double p50, double p95, double p99, double max) {
+        this.ticks = ticks;
+        this.slowTicks = slowTicks;
+        this.tps = tps;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    /**
+     * Gets the amount of ticks in the window
+     * @return the amount of ticks in the window
+     */
+    public int getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the amount of ticks that took longer than 50ms
+     * @return the amount of slow ticks
+     */
+    public int getSlowTicks() {
+        return slowTicks;
+    }
+
+    /**
+     * Gets the ticks per second in the window
+     * @return the ticks per second
+     */
+    public double getTps() {
+        return tps;
+    }
+
+    /**
+     * Gets the mean tick time
+     * @return the mean tick time in milliseconds
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the median tick time
+     * @return the median tick time in milliseconds
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the 95th percentile of the tick time
+     * @return the 95th percentile in milliseconds
+     */
+    public double getP95() {
+        return p95;
+    }
+
+    /**
+     * Gets the 99th percentile of the tick time
+     * @return the 99th percentile in milliseconds
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the longest tick time
+     * @return the longest tick time in milliseconds
+     */
+    public double getMax() {
+        return max;
+    }
+}
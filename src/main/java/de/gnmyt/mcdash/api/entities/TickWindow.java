@@ -0,0 +1,55 @@
+package de.gnmyt.mcdash.api.entities;
+
+import java.util.concurrent.TimeUnit;
+
+public enum TickWindow {
+
+    /**
+     * The ticks of the last 5 seconds
+     */
+    FIVE_SECONDS("5s", TimeUnit.SECONDS.toNanos(5)),
+
+    /**
+     * The ticks of the last minute
+     */
+    ONE_MINUTE("1m", TimeUnit.MINUTES.toNanos(1)),
+
+    /**
+     * The ticks of the last 5 minutes
+     */
+    FIVE_MINUTES("5m", TimeUnit.MINUTES.toNanos(5)),
+
+    /**
+     * The ticks of the last 15 minutes
+     */
+    FIFTEEN_MINUTES("15m", TimeUnit.MINUTES.toNanos(15));
+
+    private final String key;
+    private final long nanos;
+
+    /**
+     * Basic constructor of the {@link TickWindow}
+     * @param key The key of the window used in the api
+     * @param nanos The length of the window in nanoseconds
+     */
+    TickWindow(String key, long nanos) {
+        this.key = key;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Gets the key of the window used in the api
+     * @return the key of the window
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the length of the window
+     * @return the length of the window in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
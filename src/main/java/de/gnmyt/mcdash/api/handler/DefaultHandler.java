@@ -5,6 +5,8 @@ import com.sun.net.httpserver.HttpHandler;
 import de.gnmyt.mcdash.MinecraftDashboard;
 import de.gnmyt.mcdash.api.config.AccountManager;
 import de.gnmyt.mcdash.api.config.ConfigurationManager;
+import de.gnmyt.mcdash.api.controller.SessionController;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.HTTPMethod;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
@@ -12,14 +14,31 @@ import org.apache.commons.io.IOUtils;
 import org.bukkit.Bukkit;
 
 import java.io.IOException;
-import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.RejectedExecutionException;
 
 public abstract class DefaultHandler implements HttpHandler {
     public ConfigurationManager manager = MinecraftDashboard.getDashboardConfig();
     public AccountManager accountManager = MinecraftDashboard.getAccountManager();
+    public SessionController sessionController = MinecraftDashboard.getSessionController();
+
+    private final Map<HTTPMethod, RouteMethod> methods = new EnumMap<>(HTTPMethod.class);
+    private final RouteStats stats = new RouteStats();
+    private final Map<HTTPMethod, RouteStats> methodStats = new EnumMap<>(HTTPMethod.class);
+    private String allowHeader = HTTPMethod.OPTIONS.name();
+
+    /**
+     * Basic constructor of the {@link DefaultHandler}
+     */
+    public DefaultHandler() {
+        for (HTTPMethod method : HTTPMethod.values()) methodStats.put(method, new RouteStats());
+    }
 
     /**
      * Gets the current route path
@@ -29,76 +48,163 @@ public abstract class DefaultHandler implements HttpHandler {
         return "";
     }
 
+    /**
+     * Gets the pool the requests of this route are executed in
+     * @return the execution class of the route
+     */
+    public ExecutionClass executionClass() {
+        return ExecutionClass.FAST;
+    }
+
+    /**
+     * Gets the pool a request of this route is executed in. Routes whose methods need different pools
+     * (e.g. a quick listing and a long running upload) can override this method
+     * @param method The http method of the request or <code>null</code> if the method is not supported
+     * @return the execution class of the request
+     */
+    public ExecutionClass executionClass(HTTPMethod method) {
+        return executionClass();
+    }
+
     /**
      * The default handler of the Httpserver
+     * Hands the request over to the pool of the route, if the pool is full the request gets rejected
      * @param exchange The exchange given by the HttpHandler
      */
     @Override
     public void handle(HttpExchange exchange) {
-        MinecraftDashboard.getExecutor().execute(() -> {
-            Request request = prepareRequest(exchange, true);
-            ResponseController controller = new ResponseController(exchange);
+        long queuedAt = System.nanoTime();
 
-            List<String> authHeader = request.getHeaders().get("Authorization");
-            if (authHeader == null) {
-                controller.code(400).message("You need to provide your credentials");
-                return;
-            }
+        try {
+            MinecraftDashboard.getHttpExecutor().execute(executionClass(HTTPMethod.fromName(exchange.getRequestMethod())),
+                    () -> handleRequest(exchange, System.nanoTime() - queuedAt));
+        } catch (RejectedExecutionException e) {
+            ResponseController controller = new ResponseController(exchange);
+            controller.code(503).header("Retry-After", "1").message("The server is busy, please try again later");
 
-            String[] authCredentials;
-            try {
-                authCredentials = new String(Base64.getDecoder().decode(authHeader.get(0)
-                        .replace("Basic ", ""))).split(":");
-            } catch (Exception e) {
-                controller.code(400).message("You need to provide your credentials");
-                return;
-            }
+            record(exchange, null, controller, 0, System.nanoTime() - queuedAt, 0);
+        }
+    }
 
-            if (authCredentials.length != 2) {
-                controller.code(400).message("You need to provide your credentials");
-                return;
-            }
+    /**
+     * Authenticates and executes a request
+     * @param exchange The exchange given by the HttpHandler
+     * @param queueTime The time the request waited for a free thread in nanoseconds
+     */
+    private void handleRequest(HttpExchange exchange, long queueTime) {
+        long startTime = System.nanoTime();
+        Request request = prepareRequest(exchange, true);
+        ResponseController controller = new ResponseController(exchange);
 
-            if (!isValidCredentials(authCredentials[0], authCredentials[1])) {
-                controller.code(401).message("The provided credentials are invalid");
-                return;
-            }
+        try {
+            String username = authenticate(request.getHeaders().getFirst("Authorization"), controller);
+            if (username == null) return;
 
+            request.setUsername(username);
             execute(request, controller);
-        });
+        } finally {
+            long endTime = controller.isStreamed() && controller.getHeadersSentAt() != 0 ? controller.getHeadersSentAt() : System.nanoTime();
+            record(exchange, request, controller, getRequestSize(request), queueTime, endTime - startTime);
+        }
+    }
+
+    /**
+     * Records a request in the statistics of the route and of its http method and in the slow request log
+     * @param exchange The exchange given by the HttpHandler
+     * @param request The prepared request or <code>null</code> if the request has been rejected
+     * @param controller The response controller the request has been answered with
+     * @param received The amount of bytes in the request body
+     * @param queueTime The time the request waited for a free thread in nanoseconds
+     * @param handlerTime The time the route needed to handle the request in nanoseconds. For streamed responses
+     *                    only the time until the response headers were sent
+     */
+    private void record(HttpExchange exchange, Request request, ResponseController controller, long received, long queueTime, long handlerTime) {
+        HTTPMethod method = HTTPMethod.fromName(exchange.getRequestMethod());
+
+        stats.record(queueTime, handlerTime, controller.getStatus(), received, controller.getBytesSent());
+        if (method != null) methodStats.get(method).record(queueTime, handlerTime, controller.getStatus(), received, controller.getBytesSent());
+
+        SlowRequestLog slowRequestLog = MinecraftDashboard.getSlowRequestLog();
+        if (slowRequestLog != null) slowRequestLog.record(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                request != null ? request.getUsername() : null, controller.getStatus(), queueTime, handlerTime);
+    }
+
+    /**
+     * Gets the size of the request body. Uses the <code>Content-Length</code> header if the body has not been read
+     * @param request The request object from the HttpExchange
+     * @return the amount of bytes in the request body
+     */
+    private long getRequestSize(Request request) {
+        if (request.getBodySize() > 0) return request.getBodySize();
+
+        try {
+            return Math.max(0, Long.parseLong(request.getHeaders().getFirst("Content-Length")));
+        } catch (Exception e) {
+            return 0;
+        }
     }
 
     /**
-     * Validates credentials against registered accounts or default credentials
-     * @param username The username to check
-     * @param password The password to check
-     * @return true if credentials are valid
+     * Authenticates a request with a session token (<code>Bearer</code>) or with credentials (<code>Basic</code>)
+     * and answers the request if the authentication failed
+     * @param authHeader The value of the authorization header
+     * @param controller The response controller from the HttpExchange
+     * @return the name of the authenticated user or <code>null</code> if the authentication failed
      */
-    private boolean isValidCredentials(String username, String password) {
-        // First check registered accounts
-        if (accountManager.accountExists(username)) {
-            return accountManager.isValidPassword(username, password);
+    private String authenticate(String authHeader, ResponseController controller) {
+        if (authHeader == null) {
+            controller.code(400).message("You need to provide your credentials");
+            return null;
+        }
+
+        if (authHeader.startsWith("Bearer ")) {
+            String username = sessionController.validateToken(authHeader.substring("Bearer ".length()).trim());
+            if (username == null) controller.code(401).message("The provided session is invalid or has expired");
+            return username;
+        }
+
+        String[] authCredentials;
+        try {
+            authCredentials = new String(Base64.getDecoder().decode(authHeader.replace("Basic ", ""))).split(":");
+        } catch (Exception e) {
+            controller.code(400).message("You need to provide your credentials");
+            return null;
+        }
+
+        if (authCredentials.length != 2) {
+            controller.code(400).message("You need to provide your credentials");
+            return null;
         }
 
-        // Then check default credentials from config
-        if (manager.hasDefaultCredentials()) {
-            String defaultUser = manager.getDefaultUsername();
-            String defaultPass = manager.getDefaultPassword();
-            return username.equals(defaultUser) && password.equals(defaultPass);
+        if (!sessionController.isValidCredentials(authCredentials[0], authCredentials[1])) {
+            controller.code(401).message("The provided credentials are invalid");
+            return null;
         }
 
-        return false;
+        return authCredentials[0];
     }
 
     /**
      * The default executor. Runs on every request
+     * Calls the method of the route that belongs to the http method of the request.
+     * 'HEAD' requests are handled by the 'GET' method, the response controller leaves out the body
      * @param request The request object from the HttpExchange
      * @param response The response controller from the HttpExchange
      */
     public void execute(Request request, ResponseController response) {
+        RouteMethod method = methods.get(request.getMethod() == HTTPMethod.HEAD ? HTTPMethod.GET : request.getMethod());
+
+        if (method == null) {
+            response.header("Allow", allowHeader);
+
+            if (request.getMethod() == HTTPMethod.OPTIONS) {
+                response.text("");
+            } else response.code(405).message("Method not allowed");
+            return;
+        }
+
         try {
-            getClass().getMethod(request.getMethod().toString().toLowerCase(), Request.class, ResponseController.class)
-                    .invoke(this, request, response);
+            method.handle(request, response);
         } catch (Exception e) {
             e.printStackTrace();
             response.code(500).message("An internal error occurred");
@@ -164,14 +270,89 @@ public abstract class DefaultHandler implements HttpHandler {
     }
 
     /**
-     * Creates a context based on the path of the class
+     * Gets the context path of the route, based on the path of the class
+     * @return the context path of the route
      */
-    public void register() {
+    public String getContextPath() {
         String contextPath = getClass().getPackage().getName()
                 .replace(MinecraftDashboard.getRoutePackageName(), "")
                 .replace(".", "/");
         contextPath += (path().isEmpty() ? "/" : "/"+path());
-        MinecraftDashboard.getHttpServer().createContext("/api"+contextPath, this);
+
+        return "/api"+contextPath;
+    }
+
+    /**
+     * Creates a context based on the path of the class
+     */
+    public void register() {
+        resolveMethods();
+        MinecraftDashboard.getRouteRegistry().register(getContextPath(), this);
+    }
+
+    /**
+     * Looks up which http methods are implemented by the route, so the requests are dispatched without reflection
+     */
+    private void resolveMethods() {
+        methods.clear();
+
+        for (HTTPMethod method : HTTPMethod.values()) {
+            RouteMethod routeMethod = bind(method);
+            if (routeMethod == null) continue;
+
+            try {
+                if (getClass().getMethod(method.name().toLowerCase(), Request.class, ResponseController.class)
+                        .getDeclaringClass() != DefaultHandler.class) methods.put(method, routeMethod);
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+
+        StringJoiner allowed = new StringJoiner(", ");
+        methods.keySet().forEach(method -> allowed.add(method.name()));
+        if (methods.containsKey(HTTPMethod.GET)) allowed.add(HTTPMethod.HEAD.name());
+        allowed.add(HTTPMethod.OPTIONS.name());
+        allowHeader = allowed.toString();
+    }
+
+    /**
+     * Gets the method of the route that handles a http method
+     * @param method The http method
+     * @return the method of the route or <code>null</code> if the http method can not be implemented by a route
+     */
+    private RouteMethod bind(HTTPMethod method) {
+        switch (method) {
+            case GET: return this::get;
+            case POST: return this::post;
+            case PUT: return this::put;
+            case DELETE: return this::delete;
+            case PATCH: return this::patch;
+            default: return null;
+        }
+    }
+
+    /**
+     * Gets all http methods implemented by the route
+     * @return the implemented http methods
+     */
+    public Set<HTTPMethod> getMethods() {
+        return Collections.unmodifiableSet(methods.keySet());
+    }
+
+    /**
+     * Gets the request statistics of the route
+     * @return the statistics of the route
+     */
+    public RouteStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Gets the request statistics of a http method of the route
+     * @param method The http method
+     * @return the statistics of the http method
+     */
+    public RouteStats getStats(HTTPMethod method) {
+        return methodStats.get(method);
     }
 
     /**
@@ -181,28 +362,23 @@ public abstract class DefaultHandler implements HttpHandler {
      * @return The prepared request
      */
     protected Request prepareRequest(HttpExchange exchange, boolean writeBody) {
-        StringWriter writer = new StringWriter();
+        byte[] body = new byte[0];
 
         if (writeBody) {
             try {
-                IOUtils.copy(exchange.getRequestBody(), writer, StandardCharsets.UTF_8);
+                body = IOUtils.toByteArray(exchange.getRequestBody());
             } catch (IOException e) {
                 e.printStackTrace();
             }
         }
 
-        HTTPMethod method = HTTPMethod.GET;
-
-        for (HTTPMethod current : HTTPMethod.values()) {
-            if (current.toString().equals(exchange.getRequestMethod())) method = current;
-        }
-
         return new Request()
+                .setBodySize(body.length)
                 .setUri(exchange.getRequestURI())
                 .setRemoteAddress(exchange.getRemoteAddress())
-                .setMethod(method)
+                .setMethod(HTTPMethod.fromName(exchange.getRequestMethod()))
                 .setHeaders(exchange.getRequestHeaders())
-                .mapBody(writer.toString())
+                .mapBody(new String(body, StandardCharsets.UTF_8))
                 .mapQuery(exchange.getRequestURI().getQuery());
     }
 
@@ -277,6 +453,21 @@ public abstract class DefaultHandler implements HttpHandler {
         }
     }
 
+    /**
+     * Gets a long from the query
+     * @param request The request object from the HttpExchange
+     * @param name The name of the value you want to get
+     * @return the value (long)
+     */
+    public Long getLongFromQuery(Request request, String name) {
+        String value = getStringFromQuery(request, name);
+        try {
+            return Long.parseLong(value);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * Checks if a string is in the body
      * @param request The request object from the HttpExchange
@@ -0,0 +1,19 @@
+package de.gnmyt.mcdash.api.handler;
+
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+
+/**
+ * A method of a route that handles the requests of one http method
+ */
+public interface RouteMethod {
+
+    /**
+     * Handles a request
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     * @throws Exception Every exception happening in the route
+     */
+    void handle(Request request, ResponseController response) throws Exception;
+
+}
@@ -0,0 +1,40 @@
+package de.gnmyt.mcdash.api.handler;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public class RouteRegistry {
+
+    private final HttpServer server;
+    private final Map<String, DefaultHandler> routes = new ConcurrentSkipListMap<>();
+
+    /**
+     * Basic constructor of the {@link RouteRegistry}
+     * @param server The http server the routes are registered in
+     */
+    public RouteRegistry(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Registers a route
+     * @param path The context path of the route (e.g. <code>/api/backups/</code>)
+     * @param handler The handler of the route
+     */
+    public void register(String path, DefaultHandler handler) {
+        server.createContext(path, handler);
+        routes.put(path, handler);
+    }
+
+    /**
+     * Gets all registered routes
+     * @return all routes, mapped by their context path
+     */
+    public Map<String, DefaultHandler> getRoutes() {
+        return Collections.unmodifiableMap(routes);
+    }
+
+}
@@ -0,0 +1,176 @@
+package de.gnmyt.mcdash.api.handler;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class RouteStats {
+
+    private static final long[] LATENCY_BOUNDS = {1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final LongAccumulator maxTime = new LongAccumulator(Math::max, 0);
+    private final LongAdder queueTime = new LongAdder();
+    private final LongAccumulator maxQueueTime = new LongAccumulator(Math::max, 0);
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder[] latencyCounts = new LongAdder[LATENCY_BOUNDS.length + 1];
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    /**
+     * Basic constructor of the {@link RouteStats}
+     */
+    public RouteStats() {
+        for (int bucket = 0; bucket < latencyCounts.length; bucket++) latencyCounts[bucket] = new LongAdder();
+    }
+
+    /**
+     * Records a handled request. Requests answered with a 5xx status code count as errors
+     * @param queueNanos The time the request waited for a free thread in nanoseconds
+     * @param handlerNanos The time the route needed to handle the request in nanoseconds
+     * @param status The status code of the response
+     * @param received The amount of bytes in the request body
+     * @param sent The amount of bytes in the response body
+     */
+    public void record(long queueNanos, long handlerNanos, int status, long received, long sent) {
+        requests.increment();
+        totalTime.add(handlerNanos);
+        maxTime.accumulate(handlerNanos);
+        queueTime.add(queueNanos);
+        maxQueueTime.accumulate(queueNanos);
+        bytesIn.add(received);
+        bytesOut.add(sent);
+        if (status >= 500) errors.increment();
+
+        int bucket = 0;
+        while (bucket < LATENCY_BOUNDS.length && handlerNanos > TimeUnit.MILLISECONDS.toNanos(LATENCY_BOUNDS[bucket])) bucket++;
+        latencyCounts[bucket].increment();
+
+        statusCodes.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    /**
+     * Gets the amount of handled requests
+     * @return the amount of handled requests
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Gets the amount of requests that were answered with a 5xx status code
+     * @return the amount of failed requests
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Gets the time the route needed for all requests
+     * @return the total time in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime.sum();
+    }
+
+    /**
+     * Gets the average time the route needed for a request
+     * @return the average time in milliseconds
+     */
+    public double getAverageTime() {
+        long count = requests.sum();
+        return count == 0 ? 0 : totalTime.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the longest time the route needed for a request
+     * @return the longest time in milliseconds
+     */
+    public double getMaxTime() {
+        return maxTime.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the time all requests waited for a free thread
+     * @return the total queue time in nanoseconds
+     */
+    public long getQueueTime() {
+        return queueTime.sum();
+    }
+
+    /**
+     * Gets the average time a request waited for a free thread
+     * @return the average queue time in milliseconds
+     */
+    public double getAverageQueueTime() {
+        long count = requests.sum();
+        return count == 0 ? 0 : queueTime.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the longest time a request waited for a free thread
+     * @return the longest queue time in milliseconds
+     */
+    public double getMaxQueueTime() {
+        return maxQueueTime.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Gets the amount of bytes the route received in request bodies
+     * @return the amount of received bytes
+     */
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    /**
+     * Gets the amount of bytes the route sent in response bodies
+     * @return the amount of sent bytes
+     */
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * Gets the amount of buckets of the latency histogram, without the bucket for longer requests
+     * @return the amount of buckets
+     */
+    public int getLatencyBuckets() {
+        return LATENCY_BOUNDS.length;
+    }
+
+    /**
+     * Gets the upper bound of a bucket of the latency histogram
+     * @param bucket The index of the bucket
+     * @return the upper bound in milliseconds
+     */
+    public long getLatencyBound(int bucket) {
+        return LATENCY_BOUNDS[bucket];
+    }
+
+    /**
+     * Gets the amount of requests in a bucket of the latency histogram.
+     * The index {@link #getLatencyBuckets()} contains the requests that took longer than the last bound
+     * @param bucket The index of the bucket
+     * @return the amount of requests in the bucket (not cumulative)
+     */
+    public long getLatencyCount(int bucket) {
+        return latencyCounts[bucket].sum();
+    }
+
+    /**
+     * Gets the amount of responses per status code
+     * @return the amount of responses, sorted by the status code
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> codes = new TreeMap<>();
+        statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+        return codes;
+    }
+
+}
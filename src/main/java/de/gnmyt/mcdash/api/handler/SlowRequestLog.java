@@ -0,0 +1,81 @@
+package de.gnmyt.mcdash.api.handler;
+
+import de.gnmyt.mcdash.api.entities.SlowRequest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+public class SlowRequestLog {
+
+    private static final int HISTORY = 100;
+
+    private final long threshold;
+    private final Logger logger;
+    private final Deque<SlowRequest> requests = new ArrayDeque<>();
+
+    /**
+     * Basic constructor of the {@link SlowRequestLog}
+     * @param threshold The time after which a request counts as slow in milliseconds (0 to disable the log)
+     * @param logger The logger slow requests get reported to
+     */
+    public SlowRequestLog(long threshold, Logger logger) {
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.logger = logger;
+    }
+
+    /**
+     * Records a request if it took longer than the threshold (queue and handler time combined)
+     * @param method The http method of the request
+     * @param path The path of the request (without the query)
+     * @param username The name of the authenticated user or <code>null</code> if the request was not authenticated
+     * @param status The status code of the response
+     * @param queueNanos The time the request waited for a free thread in nanoseconds
+     * @param handlerNanos The time the route needed to handle the request in nanoseconds
+     */
+    public void record(String method, String path, String username, int status, long queueNanos, long handlerNanos) {
+        if (threshold <= 0 || queueNanos + handlerNanos < threshold) return;
+
+        SlowRequest request = new SlowRequest(System.currentTimeMillis(), method, path, username, status,
+                toMillis(queueNanos), toMillis(handlerNanos));
+
+        logger.warning(String.format("Slow request: %s %s took %.1f ms (%.1f ms queued, status %d)",
+                method, path, request.getQueueTime() + request.getHandlerTime(), request.getQueueTime(), status));
+
+        synchronized (requests) {
+            requests.addFirst(request);
+            if (requests.size() > HISTORY) requests.removeLast();
+        }
+    }
+
+    /**
+     * Gets the last slow requests
+     * @return the slow requests, the newest first
+     */
+    public List<SlowRequest> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    /**
+     * Gets the time after which a request counts as slow
+     * @return the threshold in milliseconds or 0 if the log is disabled
+     */
+    public long getThreshold() {
+        return TimeUnit.NANOSECONDS.toMillis(threshold);
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds
+     * @param nanos The nanoseconds
+     * @return the milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
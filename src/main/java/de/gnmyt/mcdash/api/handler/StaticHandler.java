@@ -2,43 +2,154 @@ package de.gnmyt.mcdash.api.handler;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import de.gnmyt.mcdash.MinecraftDashboard;
 import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import org.apache.commons.io.IOUtils;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
 
 public class StaticHandler implements HttpHandler {
 
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE = "no-cache";
+
+    private final Map<String, Asset> assets = new ConcurrentHashMap<>();
+
     /**
-     * Handles the request of the client
+     * Hands the request over to the fast http pool, if the pool is full the request gets rejected
      *
      * @param exchange the exchange containing the request from the
      *                 client and used to send the response
-     * @throws IOException An exception that can occur while reading the request or writing the response
      */
     @Override
-    public void handle(HttpExchange exchange) throws IOException {
+    public void handle(HttpExchange exchange) {
+        try {
+            MinecraftDashboard.getHttpExecutor().execute(ExecutionClass.FAST, () -> {
+                try {
+                    handleRequest(exchange);
+                } catch (IOException e) {
+                    exchange.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            new ResponseController(exchange).code(503).header("Retry-After", "1")
+                    .message("The server is busy, please try again later");
+        }
+    }
+
+    /**
+     * Handles the request of the client. The assets are cached in memory and compressed on the first request,
+     * files with a hashed name (everything in <code>/assets/</code>) may be cached by the browser forever
+     *
+     * @param exchange the exchange containing the request from the
+     *                 client and used to send the response
+     * @throws IOException An exception that can occur while reading the request or writing the response
+     */
+    private void handleRequest(HttpExchange exchange) throws IOException {
         String path = exchange.getRequestURI().getPath();
         if (path.equals("/")) path = "/index.html";
 
-        if (getResourceStream("webui" + path) == null) path = "/index.html";
+        Asset asset = path.contains("..") ? null : getAsset(path);
+        if (asset == null) {
+            path = "/index.html";
+            asset = getAsset(path);
+        }
+
+        if (asset == null) {
+            exchange.sendResponseHeaders(404, -1L);
+            exchange.close();
+            return;
+        }
 
-        exchange.getResponseHeaders().add("Content-Type", ContentType.getContentType(path).getType());
+        boolean gzip = acceptsGzip(exchange.getRequestHeaders().getFirst("Accept-Encoding")) && asset.getGzip() != null;
+        String eTag = gzip ? asset.gzipETag : asset.eTag;
 
-        try (InputStream inputStream = getResourceStream("webui" + path)) {
-            if (inputStream != null) {
-                exchange.sendResponseHeaders(200, 0);
+        exchange.getResponseHeaders().set("Content-Type", asset.contentType.getType());
+        exchange.getResponseHeaders().set("ETag", eTag);
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        exchange.getResponseHeaders().set("Cache-Control", path.startsWith("/assets/") ? IMMUTABLE_CACHE : REVALIDATE_CACHE);
 
-                try (OutputStream outputStream = exchange.getResponseBody()) {
-                    byte[] buffer = new byte[8192];
-                    int length;
-                    while ((length = inputStream.read(buffer)) != -1) outputStream.write(buffer, 0, length);
-                }
+        if (isNotModified(exchange.getRequestHeaders().getFirst("If-None-Match"), asset)) {
+            exchange.sendResponseHeaders(304, -1L);
+            exchange.close();
+            return;
+        }
+
+        byte[] body = gzip ? asset.getGzip() : asset.bytes;
+        if (gzip) exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+
+        if (exchange.getRequestMethod().equalsIgnoreCase("HEAD")) {
+            exchange.sendResponseHeaders(200, -1L);
+            exchange.close();
+            return;
+        }
+
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    /**
+     * Gets an asset from the cache or loads it from the plugin jar
+     *
+     * @param path The path of the asset
+     * @return the asset or <code>null</code> if the asset does not exist
+     */
+    private Asset getAsset(String path) {
+        return assets.computeIfAbsent(path, key -> {
+            try (InputStream inputStream = getResourceStream("webui" + key)) {
+                return inputStream != null ? new Asset(ContentType.getContentType(key), IOUtils.toByteArray(inputStream)) : null;
+            } catch (IOException e) {
+                return null;
             }
+        });
+    }
+
+    /**
+     * Checks if the client accepts gzip compressed responses
+     *
+     * @param acceptEncoding The value of the <code>Accept-Encoding</code> header
+     * @return <code>true</code> if gzip is accepted, otherwise <code>false</code>
+     */
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+
+            return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
         }
+        return false;
+    }
 
-        exchange.close();
+    /**
+     * Checks if the client already has the current version of an asset
+     *
+     * @param ifNoneMatch The value of the <code>If-None-Match</code> header
+     * @param asset The asset
+     * @return <code>true</code> if the asset has not been modified, otherwise <code>false</code>
+     */
+    private boolean isNotModified(String ifNoneMatch, Asset asset) {
+        if (ifNoneMatch == null) return false;
+
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(asset.eTag) || tag.equals(asset.gzipETag)) return true;
+        }
+        return false;
     }
 
     /**
@@ -51,4 +162,69 @@ public class StaticHandler implements HttpHandler {
         return getClass().getClassLoader().getResourceAsStream(path);
     }
 
-}
\ No newline at end of file
+    private static class Asset {
+
+        private final ContentType contentType;
+        private final byte[] bytes;
+        private final String eTag;
+        private final String gzipETag;
+
+        private volatile byte[] gzip;
+        private volatile boolean compressed;
+
+        /**
+         * Basic constructor of the {@link Asset}
+         *
+         * @param contentType The content type of the asset
+         * @param bytes The content of the asset
+         */
+        Asset(ContentType contentType, byte[] bytes) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            String hash = Long.toHexString(bytes.length) + "-" + Long.toHexString(crc.getValue());
+
+            this.eTag = "\"" + hash + "\"";
+            this.gzipETag = "\"" + hash + "-gzip\"";
+        }
+
+        /**
+         * Gets the gzip compressed content of the asset. The asset gets compressed on the first call
+         *
+         * @return the compressed content or <code>null</code> if compressing does not make the asset smaller
+         */
+        byte[] getGzip() {
+            if (compressed) return gzip;
+
+            synchronized (this) {
+                if (compressed) return gzip;
+
+                if (isCompressible()) {
+                    ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 2);
+                    try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream)) {
+                        gzipStream.write(bytes);
+                    } catch (IOException ignored) {
+                    }
+
+                    if (outputStream.size() < bytes.length) gzip = outputStream.toByteArray();
+                }
+
+                compressed = true;
+                return gzip;
+            }
+        }
+
+        /**
+         * Checks if the content type of the asset can be compressed (images and fonts are compressed already)
+         *
+         * @return <code>true</code> if the asset is text, otherwise <code>false</code>
+         */
+        private boolean isCompressible() {
+            return contentType == ContentType.TEXT || contentType == ContentType.CSS || contentType == ContentType.JAVASCRIPT
+                    || contentType == ContentType.JSON || contentType == ContentType.SVG;
+        }
+    }
+
+}
@@ -21,6 +21,33 @@ public enum ContentType {
      */
     MULTIPART("multipart/form-data", null),
 
+    /**
+     * The event stream content type
+     * Used for server-sent events
+     */
+    EVENT_STREAM("text/event-stream", null),
+
+    /**
+     * The text exposition format of prometheus
+     * Used by the metrics route
+     */
+    PROMETHEUS("text/plain; version=0.0.4; charset=utf-8", null),
+
+    /**
+     * The zip content type
+     */
+    ZIP("application/zip", "zip"),
+
+    /**
+     * The Zstandard content type
+     */
+    ZSTD("application/zstd", "zst"),
+
+    /**
+     * The LZ4 content type
+     */
+    LZ4("application/x-lz4", "lz4"),
+
     /**
      * The css content type
      */
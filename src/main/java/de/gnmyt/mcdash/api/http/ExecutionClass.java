@@ -0,0 +1,64 @@
+package de.gnmyt.mcdash.api.http;
+
+/**
+ * The pools the requests of the routes are executed in. Every pool has its own threads and queue,
+ * so slow routes can never block the fast ones
+ */
+public enum ExecutionClass {
+
+    /**
+     * Short requests that only read or change some state of the server (e.g. the stats or the player list)
+     */
+    FAST("fast", 8, 128),
+
+    /**
+     * Requests that read or write files (e.g. the file browser or backup downloads)
+     */
+    IO("io", 4, 32),
+
+    /**
+     * Requests that may take several seconds or minutes (e.g. creating or restoring backups, installing plugins)
+     */
+    LONG_RUNNING("long-running", 2, 8);
+
+    private final String key;
+    private final int defaultThreads;
+    private final int defaultQueueSize;
+
+    /**
+     * Basic constructor of the {@link ExecutionClass}
+     * @param key The key of the pool in the configuration
+     * @param defaultThreads The default amount of threads of the pool
+     * @param defaultQueueSize The default amount of requests that may wait for a free thread
+     */
+    ExecutionClass(String key, int defaultThreads, int defaultQueueSize) {
+        this.key = key;
+        this.defaultThreads = defaultThreads;
+        this.defaultQueueSize = defaultQueueSize;
+    }
+
+    /**
+     * Gets the key of the pool in the configuration
+     * @return the key of the pool
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the default amount of threads of the pool
+     * @return the default amount of threads
+     */
+    public int getDefaultThreads() {
+        return defaultThreads;
+    }
+
+    /**
+     * Gets the default amount of requests that may wait for a free thread
+     * @return the default size of the queue
+     */
+    public int getDefaultQueueSize() {
+        return defaultQueueSize;
+    }
+
+}
@@ -1,5 +1,8 @@
 package de.gnmyt.mcdash.api.http;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * All http methods needed by this plugin
  */
@@ -10,6 +13,11 @@ public enum HTTPMethod {
      */
     GET,
 
+    /**
+     * The 'HEAD' request method. Used whenever a request only wants the headers a 'GET' request would return
+     */
+    HEAD,
+
     /**
      * The 'POST' request method. Used whenever a request wants to change something on the server
      */
@@ -33,6 +41,21 @@ public enum HTTPMethod {
     /**
      * The 'OPTIONS' request method. Used whenever the request wants to describe the communication options for the target resource
      */
-    OPTIONS
+    OPTIONS;
+
+    private static final Map<String, HTTPMethod> METHODS = new HashMap<>();
+
+    static {
+        for (HTTPMethod method : values()) METHODS.put(method.name(), method);
+    }
+
+    /**
+     * Gets a http method from its name
+     * @param name The name of the method (e.g. <code>GET</code>)
+     * @return the http method or <code>null</code> if the method is not supported
+     */
+    public static HTTPMethod fromName(String name) {
+        return METHODS.get(name);
+    }
 
 }
@@ -0,0 +1,183 @@
+package de.gnmyt.mcdash.api.http;
+
+import de.gnmyt.mcdash.api.config.ConfigurationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+public class HttpExecutor {
+
+    private final Map<ExecutionClass, Pool> pools = new EnumMap<>(ExecutionClass.class);
+    private final boolean virtualThreads;
+
+    /**
+     * Basic constructor of the {@link HttpExecutor}
+     * Creates a pool for every {@link ExecutionClass} with the sizes of the configuration
+     * @param config The configuration of the dashboard
+     * @param logger The logger the thread mode gets reported to
+     */
+    public HttpExecutor(ConfigurationManager config, Logger logger) {
+        ExecutorService virtualExecutor = config.isVirtualThreadsEnabled() ? createVirtualExecutor() : null;
+
+        if (config.isVirtualThreadsEnabled() && virtualExecutor == null)
+            logger.warning("Virtual threads require Java 21 or newer, falling back to platform threads");
+
+        this.virtualThreads = virtualExecutor != null;
+
+        for (ExecutionClass executionClass : ExecutionClass.values()) {
+            int threads = config.getHttpThreads(executionClass);
+            int queueSize = config.getHttpQueueSize(executionClass);
+
+            pools.put(executionClass, virtualExecutor != null ? new Pool(virtualExecutor, threads + queueSize)
+                    : new Pool(createPlatformExecutor(executionClass, threads, queueSize), Integer.MAX_VALUE));
+        }
+    }
+
+    /**
+     * Executes a request in the pool of its execution class
+     * @param executionClass The execution class of the route
+     * @param runnable The code that handles the request
+     * @throws RejectedExecutionException An exception that will be thrown if the pool and its queue are full
+     */
+    public void execute(ExecutionClass executionClass, Runnable runnable) {
+        pools.get(executionClass).execute(runnable);
+    }
+
+    /**
+     * Gets the amount of requests that wait for a free thread
+     * @param executionClass The execution class of the pool
+     * @return the amount of queued requests
+     */
+    public int getQueuedRequests(ExecutionClass executionClass) {
+        return pools.get(executionClass).getQueued();
+    }
+
+    /**
+     * Gets the amount of requests that are currently executed
+     * @param executionClass The execution class of the pool
+     * @return the amount of running requests
+     */
+    public int getActiveRequests(ExecutionClass executionClass) {
+        return pools.get(executionClass).getActive();
+    }
+
+    /**
+     * Checks if the requests are executed in virtual threads
+     * @return <code>true</code> if virtual threads are used, otherwise <code>false</code>
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops all pools. Requests that are currently executed are not interrupted
+     */
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.executor.shutdown());
+    }
+
+    /**
+     * Creates a bounded pool of platform threads
+     * @param executionClass The execution class of the pool
+     * @param threads The amount of threads
+     * @param queueSize The amount of requests that may wait for a free thread
+     * @return the created pool
+     */
+    private static ExecutorService createPlatformExecutor(ExecutionClass executionClass, int threads, int queueSize) {
+        AtomicInteger threadId = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-HTTP-" + executionClass.getKey() + "-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every request.
+     * The executor is looked up at runtime, so the plugin still runs on Java 8
+     * @return the created executor or <code>null</code> if virtual threads are not supported
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static class Pool {
+
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final int maxRequests;
+
+        /**
+         * Basic constructor of the {@link Pool}
+         * @param executor The executor that runs the requests
+         * @param maxRequests The maximum amount of requests that may be executed or queued at the same time
+         */
+        Pool(ExecutorService executor, int maxRequests) {
+            this.executor = executor;
+            this.maxRequests = maxRequests;
+            this.permits = maxRequests == Integer.MAX_VALUE ? null : new Semaphore(maxRequests);
+        }
+
+        /**
+         * Executes a request. Virtual threads are unbounded, so their amount is limited with a semaphore
+         * @param runnable The code that handles the request
+         * @throws RejectedExecutionException An exception that will be thrown if the pool is full
+         */
+        void execute(Runnable runnable) {
+            if (permits == null) {
+                executor.execute(runnable);
+                return;
+            }
+
+            if (!permits.tryAcquire()) throw new RejectedExecutionException("Too many requests");
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Gets the amount of requests that wait for a free thread. Virtual threads start immediately, so they never wait
+         * @return the amount of queued requests
+         */
+        int getQueued() {
+            return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getQueue().size() : 0;
+        }
+
+        /**
+         * Gets the amount of requests that are currently executed
+         * @return the amount of running requests
+         */
+        int getActive() {
+            if (permits != null) return maxRequests - permits.availablePermits();
+            return executor instanceof ThreadPoolExecutor ? ((ThreadPoolExecutor) executor).getActiveCount() : 0;
+        }
+    }
+
+}
@@ -20,6 +20,8 @@ public class Request {
     private HashMap<String, String> query = new HashMap<>();
     private HashMap<String, String> body = new HashMap<>();
     private List<FileItem> files = new ArrayList<>();
+    private String username;
+    private long bodySize;
 
     /**
      * Basic constructor of the {@link Request}
@@ -110,6 +112,22 @@ public class Request {
         return files;
     }
 
+    /**
+     * Gets the size of the request body. Bodies that are read by the route itself (multipart uploads) are not counted
+     * @return the amount of bytes in the request body
+     */
+    public long getBodySize() {
+        return bodySize;
+    }
+
+    /**
+     * Gets the name of the authenticated user
+     * @return the name of the user that sent the request
+     */
+    public String getUsername() {
+        return username;
+    }
+
     /**
      * Sets the request body
      * @param body The body of the request
@@ -190,6 +208,26 @@ public class Request {
         return this;
     }
 
+    /**
+     * Sets the size of the request body
+     * @param bodySize The amount of bytes in the request body
+     * @return the current {@link Request} instance
+     */
+    public Request setBodySize(long bodySize) {
+        this.bodySize = bodySize;
+        return this;
+    }
+
+    /**
+     * Sets the name of the authenticated user
+     * @param username The name of the user that sent the request
+     * @return the current {@link Request} instance
+     */
+    public Request setUsername(String username) {
+        this.username = username;
+        return this;
+    }
+
     /**
      * Maps the body to the existing hashmap & sets the body string
      * @param body The body you want to map
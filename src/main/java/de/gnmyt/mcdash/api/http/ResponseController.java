@@ -2,15 +2,31 @@ package de.gnmyt.mcdash.api.http;
 
 import com.sun.net.httpserver.HttpExchange;
 
+import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ResponseController {
 
     private HttpExchange exchange;
     private Response response = new Response();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private volatile int status;
+    private volatile boolean streamed;
+    private volatile long headersSentAt;
 
     /**
      * Basic constructor of the {@link ResponseController}
@@ -132,10 +148,209 @@ public class ResponseController {
     }
 
     /**
-     * Sends the current response
+     * Starts a streamed response with an unknown length.
+     * The returned stream stays open until it gets closed by the caller. The response to a 'HEAD' request
+     * only contains the headers, everything written to the returned stream gets discarded
+     * @param type The content type of the stream
+     * @return the output stream of the response
+     * @throws IOException An exception that will be thrown if the response headers could not be sent
      */
-    public void send() {
-        OutputStream os = exchange.getResponseBody();
+    public OutputStream stream(ContentType type) throws IOException {
+        response.setContentType(type);
+        writeHeaders();
+        streamed = true;
+
+        if (isHeadRequest()) {
+            sendResponseHeaders(response.getCode(), -1L);
+            exchange.close();
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            };
+        }
+
+        sendResponseHeaders(response.getCode(), 0);
+        return new CountingOutputStream(exchange.getResponseBody());
+    }
+
+    /**
+     * Streams a file to the client without loading it into memory.
+     * Supports conditional requests (<code>If-None-Match</code>, <code>If-Modified-Since</code>),
+     * single byte ranges (<code>Range</code>) and conditional ranges (<code>If-Range</code>),
+     * so that interrupted downloads can be resumed
+     * @param file The file you want to send
+     * @throws IOException An exception that will be thrown if the file could not be sent
+     */
+    public void file(File file) throws IOException {
+        long length = file.length();
+        long lastModified = file.lastModified();
+        String eTag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+        String lastModifiedDate = DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(Instant.ofEpochMilli(lastModified).atZone(ZoneOffset.UTC));
+
+        response.addHeader("Accept-Ranges", "bytes")
+                .addHeader("ETag", eTag)
+                .addHeader("Last-Modified", lastModifiedDate);
+
+        if (isNotModified(eTag, lastModified)) {
+            writeHeaders();
+            sendResponseHeaders(304, -1L);
+            exchange.close();
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+        boolean rangeValid = ifRange == null || ifRange.equals(eTag) || ifRange.equals(lastModifiedDate);
+
+        if (range != null && rangeValid && range.startsWith("bytes=") && !range.contains(",")) {
+            long[] bounds = parseRange(range.substring(6).trim(), length);
+
+            if (bounds == null) {
+                response.setCode(416);
+                response.addHeader("Content-Range", "bytes */" + length);
+                writeHeaders();
+                sendResponseHeaders(416, -1L);
+                exchange.close();
+                return;
+            }
+
+            start = bounds[0];
+            end = bounds[1];
+            response.setCode(206);
+            response.addHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+        }
+
+        transfer(file, start, end - start + 1);
+    }
+
+    /**
+     * Streams a part of a file to the client without loading it into memory.
+     * The total size of the file will be sent in the <code>X-File-Size</code> header
+     * @param file The file you want to send
+     * @param start The first byte you want to send
+     * @param count The maximum amount of bytes you want to send
+     * @throws IOException An exception that will be thrown if the file could not be sent
+     */
+    public void fileRegion(File file, long start, long count) throws IOException {
+        long length = file.length();
+        start = Math.max(0, Math.min(start, length));
+
+        response.addHeader("X-File-Size", String.valueOf(length));
+        transfer(file, start, Math.min(count, length - start));
+    }
+
+    /**
+     * Checks if the client already has the current version of a file
+     * @param eTag The entity tag of the file
+     * @param lastModified The last modification time of the file
+     * @return <code>true</code> if the file has not been modified, otherwise <code>false</code>
+     */
+    private boolean isNotModified(String eTag, long lastModified) {
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) tag = tag.substring(2);
+                if (tag.equals("*") || tag.equals(eTag)) return true;
+            }
+            return false;
+        }
+
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst("If-Modified-Since");
+        if (ifModifiedSince == null) return false;
+
+        try {
+            long since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified / 1000 <= since / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sends the response headers and transfers a region of a file into the response body
+     * @param file The file you want to send
+     * @param start The first byte you want to send
+     * @param count The amount of bytes you want to send
+     * @throws IOException An exception that will be thrown if the file could not be sent
+     */
+    private void transfer(File file, long start, long count) throws IOException {
+        writeHeaders();
+        streamed = true;
+
+        if (isHeadRequest() || count <= 0) {
+            if (count > 0) exchange.getResponseHeaders().set("Content-Length", String.valueOf(count));
+            sendResponseHeaders(response.getCode(), -1L);
+            exchange.close();
+            return;
+        }
+
+        sendResponseHeaders(response.getCode(), count);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+             OutputStream os = exchange.getResponseBody()) {
+            WritableByteChannel target = Channels.newChannel(os);
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) break;
+                position += transferred;
+            }
+        }
+    }
+
+    /**
+     * Parses a single byte range
+     * @param range The range without the unit (e.g. <code>0-499</code>, <code>500-</code> or <code>-500</code>)
+     * @param length The length of the file
+     * @return the first and last byte of the range or <code>null</code> if the range is not satisfiable
+     */
+    private long[] parseRange(String range, long length) {
+        int separator = range.indexOf('-');
+        if (separator == -1) return null;
+
+        try {
+            String first = range.substring(0, separator).trim();
+            String last = range.substring(separator + 1).trim();
+
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) return null;
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || start > end) return null;
+
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the client only requested the headers of the response
+     * @return <code>true</code> if the request is a 'HEAD' request, otherwise <code>false</code>
+     */
+    private boolean isHeadRequest() {
+        return exchange.getRequestMethod().equalsIgnoreCase("HEAD");
+    }
+
+    /**
+     * Writes all response headers to the exchange
+     */
+    private void writeHeaders() {
         response
                 .addHeader("Server", "DashboardWrapper")
                 .addHeader("Content-Type", response.getContentType().getType())
@@ -146,15 +361,73 @@ public class ResponseController {
                     .addHeader("Access-Control-Allow-Headers", "*");
 
         response.getHeaders().forEach((key, value) -> exchange.getResponseHeaders().put(key, Collections.singletonList(value)));
+    }
+
+    /**
+     * Sends the status code and the response headers to the client
+     * @param code The status code
+     * @param length The length of the response body, 0 for a streamed response or -1 for no response body
+     * @throws IOException An exception that will be thrown if the headers could not be sent
+     */
+    private void sendResponseHeaders(int code, long length) throws IOException {
+        status = code;
+        headersSentAt = System.nanoTime();
+        exchange.sendResponseHeaders(code, length);
+        if (length > 0) bytesSent.addAndGet(length);
+    }
+
+    /**
+     * Gets the status code that has been sent to the client
+     * @return the status code or 0 if no response has been sent yet
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the amount of bytes that have been sent in the response body
+     * @return the amount of sent bytes
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Checks if the response body is streamed or transferred from a file. The body of such a response is sent
+     * after the route has returned or at the pace of the client, so only the time until the headers were sent
+     * says something about the route
+     * @return <code>true</code> if the response body is streamed, otherwise <code>false</code>
+     */
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    /**
+     * Gets the time the response headers have been sent at
+     * @return the time in nanoseconds ({@link System#nanoTime()}) or 0 if no headers have been sent yet
+     */
+    public long getHeadersSentAt() {
+        return headersSentAt;
+    }
+
+    /**
+     * Sends the current response
+     */
+    public void send() {
+        OutputStream os = exchange.getResponseBody();
+        writeHeaders();
 
         byte[] bs = response.getBinaryOutput() == null ? response.getOutput().getBytes(StandardCharsets.UTF_8)
                 : response.getBinaryOutput();
 
         try {
             if (exchange.getRequestMethod().equalsIgnoreCase("OPTIONS")) {
-                exchange.sendResponseHeaders(204, -1L);
+                sendResponseHeaders(204, -1L);
+            } else if (isHeadRequest()) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(bs.length));
+                sendResponseHeaders(response.getCode(), -1L);
             } else {
-                exchange.sendResponseHeaders(response.getCode(), bs.length);
+                sendResponseHeaders(response.getCode(), bs.length);
                 os.write(bs);
             }
             os.close();
@@ -165,4 +438,27 @@ public class ResponseController {
     public Response getResponse() {
         return response;
     }
+
+    private class CountingOutputStream extends FilterOutputStream {
+
+        /**
+         * Basic constructor of the {@link CountingOutputStream}
+         * @param outputStream The stream of the response body
+         */
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            bytesSent.incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            bytesSent.addAndGet(len);
+        }
+    }
 }
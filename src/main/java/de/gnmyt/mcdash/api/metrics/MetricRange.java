@@ -0,0 +1,72 @@
+package de.gnmyt.mcdash.api.metrics;
+
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.MetricResolution;
+
+public class MetricRange {
+
+    private final MetricResolution resolution;
+    private final long[] times;
+    private final float[][] min;
+    private final float[][] avg;
+    private final float[][] max;
+
+    /**
+     * Basic constructor of the {@link MetricRange}
+     * @param resolution The resolution of the points
+     * @param times The start times of the points
+     * @param min The lowest values of the points, indexed by the metric and the point
+     * @param avg The average values of the points, indexed by the metric and the point
+     * @param max The highest values of the points, indexed by the metric and the point
+     */
+    MetricRange(MetricResolution resolution, long[] times, float[][] min, float[][] avg, float[][] max) {
+        this.resolution = resolution;
+        this.times = times;
+        this.min = min;
+        this.avg = avg;
+        this.max = max;
+    }
+
+    /**
+     * Gets the resolution of the points
+     * @return the resolution of the points
+     */
+    public MetricResolution getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Gets the start times of the points
+     * @return the start times of the points in milliseconds, sorted from old to new
+     */
+    public long[] getTimes() {
+        return times;
+    }
+
+    /**
+     * Gets the lowest values of a metric
+     * @param metric The metric
+     * @return the lowest value of every point
+     */
+    public float[] getMin(Metric metric) {
+        return min[metric.ordinal()];
+    }
+
+    /**
+     * Gets the average values of a metric
+     * @param metric The metric
+     * @return the average value of every point
+     */
+    public float[] getAvg(Metric metric) {
+        return avg[metric.ordinal()];
+    }
+
+    /**
+     * Gets the highest values of a metric
+     * @param metric The metric
+     * @return the highest value of every point
+     */
+    public float[] getMax(Metric metric) {
+        return max[metric.ordinal()];
+    }
+}
@@ -0,0 +1,207 @@
+package de.gnmyt.mcdash.api.metrics;
+
+import de.gnmyt.mcdash.api.entities.MetricResolution;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+class MetricSeries {
+
+    private final MetricResolution resolution;
+    private final int metrics;
+
+    private final long[] times;
+    private final float[] min;
+    private final float[] avg;
+    private final float[] max;
+    private int head;
+    private int size;
+
+    private long bucket = -1;
+    private int count;
+    private final double[] bucketSum;
+    private final float[] bucketMin;
+    private final float[] bucketMax;
+    private final float[] bucketAvg;
+
+    /**
+     * Basic constructor of the {@link MetricSeries}
+     * @param resolution The resolution of the series
+     * @param metrics The amount of metrics per point
+     */
+    MetricSeries(MetricResolution resolution, int metrics) {
+        this.resolution = resolution;
+        this.metrics = metrics;
+
+        this.times = new long[resolution.getCapacity()];
+        this.min = new float[resolution.getCapacity() * metrics];
+        this.avg = new float[resolution.getCapacity() * metrics];
+        this.max = new float[resolution.getCapacity() * metrics];
+
+        this.bucketSum = new double[metrics];
+        this.bucketMin = new float[metrics];
+        this.bucketMax = new float[metrics];
+        this.bucketAvg = new float[metrics];
+    }
+
+    /**
+     * Records a sample. Raw series store every sample, the other series combine all samples
+     * of an interval into one point as soon as the next interval starts
+     * @param time The time of the sample in milliseconds
+     * @param values The values of the sample, indexed by the metric
+     */
+    synchronized void record(long time, float[] values) {
+        if (resolution == MetricResolution.RAW) {
+            add(time, values, values, values);
+            return;
+        }
+
+        long start = time - time % resolution.getInterval();
+        if (start != bucket) {
+            flush();
+            bucket = start;
+        }
+
+        for (int metric = 0; metric < metrics; metric++) {
+            bucketSum[metric] += values[metric];
+            bucketMin[metric] = count == 0 ? values[metric] : Math.min(bucketMin[metric], values[metric]);
+            bucketMax[metric] = count == 0 ? values[metric] : Math.max(bucketMax[metric], values[metric]);
+        }
+        count++;
+    }
+
+    /**
+     * Adds the samples of the current interval as a point
+     */
+    private void flush() {
+        if (count == 0) return;
+
+        for (int metric = 0; metric < metrics; metric++) bucketAvg[metric] = (float) (bucketSum[metric] / count);
+
+        add(bucket, bucketMin, bucketAvg, bucketMax);
+
+        Arrays.fill(bucketSum, 0);
+        count = 0;
+    }
+
+    /**
+     * Adds a point to the ring, the oldest point gets overwritten if the ring is full
+     * @param time The time of the point in milliseconds
+     * @param lowest The lowest values of the point
+     * @param average The average values of the point
+     * @param highest The highest values of the point
+     */
+    private void add(long time, float[] lowest, float[] average, float[] highest) {
+        times[head] = time;
+        System.arraycopy(lowest, 0, min, head * metrics, metrics);
+        System.arraycopy(average, 0, avg, head * metrics, metrics);
+        System.arraycopy(highest, 0, max, head * metrics, metrics);
+
+        head = (head + 1) % times.length;
+        size = Math.min(size + 1, times.length);
+    }
+
+    /**
+     * Gets all points in a time range
+     * @param from The start of the range in milliseconds
+     * @param to The end of the range in milliseconds
+     * @return the points in the range
+     */
+    synchronized MetricRange query(long from, long to) {
+        int first = head - size + times.length;
+
+        int matches = 0;
+        for (int i = 0; i < size; i++) {
+            long time = times[(first + i) % times.length];
+            if (time >= from && time <= to) matches++;
+        }
+
+        long[] rangeTimes = new long[matches];
+        float[][] rangeMin = new float[metrics][matches];
+        float[][] rangeAvg = new float[metrics][matches];
+        float[][] rangeMax = new float[metrics][matches];
+
+        int point = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = (first + i) % times.length;
+            if (times[slot] < from || times[slot] > to) continue;
+
+            rangeTimes[point] = times[slot];
+            for (int metric = 0; metric < metrics; metric++) {
+                rangeMin[metric][point] = min[slot * metrics + metric];
+                rangeAvg[metric][point] = avg[slot * metrics + metric];
+                rangeMax[metric][point] = max[slot * metrics + metric];
+            }
+            point++;
+        }
+
+        return new MetricRange(resolution, rangeTimes, rangeMin, rangeAvg, rangeMax);
+    }
+
+    /**
+     * Writes the series into a stream. Raw points only have a single value per metric
+     * @param outputStream The stream the series should be written to
+     * @throws IOException An exception that will be thrown if the series could not be written
+     */
+    synchronized void write(DataOutputStream outputStream) throws IOException {
+        outputStream.writeInt(size);
+
+        int first = head - size + times.length;
+        for (int i = 0; i < size; i++) {
+            int slot = (first + i) % times.length;
+            outputStream.writeLong(times[slot]);
+
+            for (int metric = 0; metric < metrics; metric++) {
+                outputStream.writeFloat(avg[slot * metrics + metric]);
+                if (resolution == MetricResolution.RAW) continue;
+
+                outputStream.writeFloat(min[slot * metrics + metric]);
+                outputStream.writeFloat(max[slot * metrics + metric]);
+            }
+        }
+
+        outputStream.writeLong(bucket);
+        outputStream.writeInt(count);
+        for (int metric = 0; metric < metrics; metric++) {
+            outputStream.writeDouble(bucketSum[metric]);
+            outputStream.writeFloat(bucketMin[metric]);
+            outputStream.writeFloat(bucketMax[metric]);
+        }
+    }
+
+    /**
+     * Reads the series from a stream
+     * @param inputStream The stream the series should be read from
+     * @throws IOException An exception that will be thrown if the series could not be read
+     */
+    synchronized void read(DataInputStream inputStream) throws IOException {
+        int points = inputStream.readInt();
+
+        float[] lowest = new float[metrics];
+        float[] average = new float[metrics];
+        float[] highest = new float[metrics];
+
+        for (int i = 0; i < points; i++) {
+            long time = inputStream.readLong();
+
+            for (int metric = 0; metric < metrics; metric++) {
+                average[metric] = inputStream.readFloat();
+                lowest[metric] = resolution == MetricResolution.RAW ? average[metric] : inputStream.readFloat();
+                highest[metric] = resolution == MetricResolution.RAW ? average[metric] : inputStream.readFloat();
+            }
+
+            add(time, lowest, average, highest);
+        }
+
+        bucket = inputStream.readLong();
+        count = inputStream.readInt();
+        for (int metric = 0; metric < metrics; metric++) {
+            bucketSum[metric] = inputStream.readDouble();
+            bucketMin[metric] = inputStream.readFloat();
+            bucketMax[metric] = inputStream.readFloat();
+        }
+    }
+
+}
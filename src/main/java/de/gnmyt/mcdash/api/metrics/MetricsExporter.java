@@ -0,0 +1,389 @@
+package de.gnmyt.mcdash.api.metrics;
+
+import de.gnmyt.mcdash.api.backup.BackupJobManager;
+import de.gnmyt.mcdash.api.entities.BackupJobState;
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.TickWindow;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.handler.RouteStats;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
+import de.gnmyt.mcdash.api.http.HTTPMethod;
+import de.gnmyt.mcdash.api.http.HttpExecutor;
+import de.gnmyt.mcdash.api.tasks.MetricsSampler;
+import de.gnmyt.mcdash.api.tasks.TickProfiler;
+import org.bukkit.Bukkit;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+
+public class MetricsExporter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    private static final double MILLIS_PER_SECOND = 1_000.0;
+    private static final HTTPMethod[] METHODS = HTTPMethod.values();
+
+    private final TickProfiler profiler;
+    private final MetricsSampler sampler;
+    private final HttpExecutor httpExecutor;
+    private final BackupJobManager backupJobManager;
+    private final Map<String, DefaultHandler> routes;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+    private final long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16384));
+
+    /**
+     * Basic constructor of the {@link MetricsExporter}
+     * @param profiler The profiler the tick times are taken from
+     * @param sampler The sampler the world statistics are taken from (they can only be read on the main thread)
+     * @param httpExecutor The executor of the api requests
+     * @param backupJobManager The manager of the backup jobs
+     * @param routes All registered api routes, mapped by their context path
+     */
+    public MetricsExporter(TickProfiler profiler, MetricsSampler sampler, HttpExecutor httpExecutor,
+                           BackupJobManager backupJobManager, Map<String, DefaultHandler> routes) {
+        this.profiler = profiler;
+        this.sampler = sampler;
+        this.httpExecutor = httpExecutor;
+        this.backupJobManager = backupJobManager;
+        this.routes = routes;
+    }
+
+    /**
+     * Writes all metrics in the text exposition format of prometheus.
+     * Every thread reuses its own buffer, so a scrape only allocates the returned text
+     * @return the metrics
+     */
+    public String export() {
+        StringBuilder builder = buffers.get();
+        builder.setLength(0);
+
+        writeJvm(builder);
+        writeServer(builder);
+        writeHttp(builder);
+        writeBackups(builder);
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the memory, garbage collector, thread and process metrics of the jvm
+     * @param builder The buffer the metrics should be written to
+     */
+    private void writeJvm(StringBuilder builder) {
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+
+        header(builder, "jvm_memory_bytes_used", "gauge", "Used bytes of a given JVM memory area.");
+        sample(builder, "jvm_memory_bytes_used", "area", "heap", heap.getUsed());
+        sample(builder, "jvm_memory_bytes_used", "area", "nonheap", nonHeap.getUsed());
+
+        header(builder, "jvm_memory_bytes_committed", "gauge", "Committed bytes of a given JVM memory area.");
+        sample(builder, "jvm_memory_bytes_committed", "area", "heap", heap.getCommitted());
+        sample(builder, "jvm_memory_bytes_committed", "area", "nonheap", nonHeap.getCommitted());
+
+        header(builder, "jvm_memory_bytes_max", "gauge", "Max bytes of a given JVM memory area.");
+        sample(builder, "jvm_memory_bytes_max", "area", "heap", heap.getMax());
+        sample(builder, "jvm_memory_bytes_max", "area", "nonheap", nonHeap.getMax());
+
+        header(builder, "jvm_gc_collection_seconds", "summary", "Time spent in a given JVM garbage collector in seconds.");
+        for (GarbageCollectorMXBean collector : collectors) {
+            sample(builder, "jvm_gc_collection_seconds_count", "gc", collector.getName(), Math.max(0, collector.getCollectionCount()));
+            sample(builder, "jvm_gc_collection_seconds_sum", "gc", collector.getName(), Math.max(0, collector.getCollectionTime()) / MILLIS_PER_SECOND);
+        }
+
+        header(builder, "jvm_threads_current", "gauge", "Current thread count of a JVM.");
+        sample(builder, "jvm_threads_current", threads.getThreadCount());
+        header(builder, "jvm_threads_daemon", "gauge", "Daemon thread count of a JVM.");
+        sample(builder, "jvm_threads_daemon", threads.getDaemonThreadCount());
+        header(builder, "jvm_threads_peak", "gauge", "Peak thread count of a JVM.");
+        sample(builder, "jvm_threads_peak", threads.getPeakThreadCount());
+
+        if (system instanceof com.sun.management.OperatingSystemMXBean) {
+            header(builder, "process_cpu_seconds_total", "counter", "Total user and system CPU time spent in seconds.");
+            sample(builder, "process_cpu_seconds_total", ((com.sun.management.OperatingSystemMXBean) system).getProcessCpuTime() / NANOS_PER_SECOND);
+        }
+
+        header(builder, "process_start_time_seconds", "gauge", "Start time of the process since unix epoch in seconds.");
+        sample(builder, "process_start_time_seconds", startTime / MILLIS_PER_SECOND);
+    }
+
+    /**
+     * Writes the tick times, players, worlds, chunks and entities of the server
+     * @param builder The buffer the metrics should be written to
+     */
+    private void writeServer(StringBuilder builder) {
+        header(builder, "mcdash_tps", "gauge", "Ticks per second of the server in a given window.");
+        for (TickWindow window : TickWindow.values())
+            sample(builder, "mcdash_tps", "window", window.getKey(), profiler.getStats(window).getTps());
+
+        header(builder, "mcdash_tick_duration_seconds", "histogram", "Duration of the server ticks in seconds.");
+        long cumulative = 0;
+        for (int bucket = 0; bucket < profiler.getDurationBuckets(); bucket++) {
+            cumulative += profiler.getDurationCount(bucket);
+            sample(builder, "mcdash_tick_duration_seconds_bucket", "le", profiler.getDurationBound(bucket) / MILLIS_PER_SECOND, cumulative);
+        }
+        cumulative += profiler.getDurationCount(profiler.getDurationBuckets());
+        sample(builder, "mcdash_tick_duration_seconds_bucket", "le", "+Inf", cumulative);
+        sample(builder, "mcdash_tick_duration_seconds_count", cumulative);
+        sample(builder, "mcdash_tick_duration_seconds_sum", profiler.getTotalTime() / NANOS_PER_SECOND);
+
+        header(builder, "mcdash_players_online", "gauge", "Amount of online players.");
+        sample(builder, "mcdash_players_online", Bukkit.getOnlinePlayers().size());
+        header(builder, "mcdash_players_max", "gauge", "Maximum amount of players.");
+        sample(builder, "mcdash_players_max", Bukkit.getMaxPlayers());
+
+        header(builder, "mcdash_worlds", "gauge", "Amount of loaded worlds.");
+        sample(builder, "mcdash_worlds", sampler.getWorlds());
+        header(builder, "mcdash_loaded_chunks", "gauge", "Amount of loaded chunks in all worlds.");
+        sample(builder, "mcdash_loaded_chunks", (long) sampler.getLatest(Metric.CHUNKS));
+        header(builder, "mcdash_entities", "gauge", "Amount of entities in all worlds.");
+        sample(builder, "mcdash_entities", (long) sampler.getLatest(Metric.ENTITIES));
+    }
+
+    /**
+     * Writes the request statistics of all routes and the state of the http pools
+     * @param builder The buffer the metrics should be written to
+     */
+    private void writeHttp(StringBuilder builder) {
+        header(builder, "mcdash_http_requests_total", "counter", "Requests handled by a given api route and http method.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet()) {
+            for (HTTPMethod method : METHODS) {
+                RouteStats stats = route.getValue().getStats(method);
+                if (stats.getRequests() > 0) sample(builder, "mcdash_http_requests_total", "route", route.getKey(),
+                        "method", method.name(), stats.getRequests());
+            }
+        }
+
+        header(builder, "mcdash_http_responses_total", "counter", "Responses of a given api route by status code.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet()) {
+            for (Map.Entry<Integer, Long> status : route.getValue().getStats().getStatusCodes().entrySet())
+                sample(builder, "mcdash_http_responses_total", "route", route.getKey(), "code", status.getKey(), status.getValue());
+        }
+
+        header(builder, "mcdash_http_request_errors_total", "counter", "Requests a given api route answered with a 5xx status code.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet())
+            sample(builder, "mcdash_http_request_errors_total", "route", route.getKey(), route.getValue().getStats().getErrors());
+
+        header(builder, "mcdash_http_request_duration_seconds", "histogram", "Time a given api route and http method needed to handle a request in seconds.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet()) {
+            for (HTTPMethod method : METHODS) {
+                RouteStats stats = route.getValue().getStats(method);
+                if (stats.getRequests() > 0) writeLatency(builder, route.getKey(), method, stats);
+            }
+        }
+
+        header(builder, "mcdash_http_request_duration_max_seconds", "gauge", "Longest time a given api route needed for a request in seconds.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet())
+            sample(builder, "mcdash_http_request_duration_max_seconds", "route", route.getKey(), route.getValue().getStats().getMaxTime() / MILLIS_PER_SECOND);
+
+        header(builder, "mcdash_http_queue_wait_seconds", "summary", "Time the requests of a given api route waited for a free thread in seconds.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet()) {
+            RouteStats stats = route.getValue().getStats();
+            sample(builder, "mcdash_http_queue_wait_seconds_count", "route", route.getKey(), stats.getRequests());
+            sample(builder, "mcdash_http_queue_wait_seconds_sum", "route", route.getKey(), stats.getQueueTime() / NANOS_PER_SECOND);
+        }
+
+        header(builder, "mcdash_http_request_bytes_total", "counter", "Bytes received in the request bodies of a given api route.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet())
+            sample(builder, "mcdash_http_request_bytes_total", "route", route.getKey(), route.getValue().getStats().getBytesIn());
+
+        header(builder, "mcdash_http_response_bytes_total", "counter", "Bytes sent in the response bodies of a given api route.");
+        for (Map.Entry<String, DefaultHandler> route : routes.entrySet())
+            sample(builder, "mcdash_http_response_bytes_total", "route", route.getKey(), route.getValue().getStats().getBytesOut());
+
+        header(builder, "mcdash_http_queued_requests", "gauge", "Requests waiting for a free thread in a given pool.");
+        for (ExecutionClass executionClass : ExecutionClass.values())
+            sample(builder, "mcdash_http_queued_requests", "pool", executionClass.getKey(), httpExecutor.getQueuedRequests(executionClass));
+
+        header(builder, "mcdash_http_active_requests", "gauge", "Requests currently executed in a given pool.");
+        for (ExecutionClass executionClass : ExecutionClass.values())
+            sample(builder, "mcdash_http_active_requests", "pool", executionClass.getKey(), httpExecutor.getActiveRequests(executionClass));
+    }
+
+    /**
+     * Writes the latency histogram of a http method of a route
+     * @param builder The buffer the histogram should be written to
+     * @param route The context path of the route
+     * @param method The http method
+     * @param stats The statistics of the http method
+     */
+    private void writeLatency(StringBuilder builder, String route, HTTPMethod method, RouteStats stats) {
+        long cumulative = 0;
+        for (int bucket = 0; bucket <= stats.getLatencyBuckets(); bucket++) {
+            cumulative += stats.getLatencyCount(bucket);
+
+            appendRoute(builder, "mcdash_http_request_duration_seconds_bucket", route, method).append(",le=\"");
+            if (bucket < stats.getLatencyBuckets()) appendDouble(builder, stats.getLatencyBound(bucket) / MILLIS_PER_SECOND);
+            else builder.append("+Inf");
+            builder.append("\"} ").append(cumulative).append('\n');
+        }
+
+        appendRoute(builder, "mcdash_http_request_duration_seconds_count", route, method).append("} ").append(cumulative).append('\n');
+        appendDouble(appendRoute(builder, "mcdash_http_request_duration_seconds_sum", route, method).append("} "),
+                stats.getTotalTime() / NANOS_PER_SECOND).append('\n');
+    }
+
+    /**
+     * Writes the name of a sample with the route and the http method label, the labels are not closed
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param route The context path of the route
+     * @param method The http method
+     * @return the buffer
+     */
+    private static StringBuilder appendRoute(StringBuilder builder, String name, String route, HTTPMethod method) {
+        return appendLabel(builder.append(name).append('{'), "route", route).append(",method=\"").append(method.name()).append('"');
+    }
+
+    /**
+     * Writes the state and the durations of the backup jobs
+     * @param builder The buffer the metrics should be written to
+     */
+    private void writeBackups(StringBuilder builder) {
+        header(builder, "mcdash_backup_jobs_total", "counter", "Backup jobs that finished with a given state.");
+        for (BackupJobState state : BackupJobState.values()) {
+            if (!state.isFinished()) continue;
+            sample(builder, "mcdash_backup_jobs_total", "state", state.name().toLowerCase(), backupJobManager.getFinishedJobs(state));
+        }
+
+        header(builder, "mcdash_backup_duration_seconds", "summary", "Time the executed backup jobs took in seconds.");
+        sample(builder, "mcdash_backup_duration_seconds_count", backupJobManager.getExecutedJobs());
+        sample(builder, "mcdash_backup_duration_seconds_sum", backupJobManager.getTotalDuration() / MILLIS_PER_SECOND);
+
+        header(builder, "mcdash_backup_queued_jobs", "gauge", "Backup jobs waiting for a free backup thread.");
+        sample(builder, "mcdash_backup_queued_jobs", backupJobManager.getQueuedJobs());
+        header(builder, "mcdash_backup_running_jobs", "gauge", "Backup jobs that are currently written.");
+        sample(builder, "mcdash_backup_running_jobs", backupJobManager.getRunningJobs());
+    }
+
+    /**
+     * Writes the help and type line of a metric
+     * @param builder The buffer the metric should be written to
+     * @param name The name of the metric
+     * @param type The type of the metric
+     * @param help The description of the metric
+     */
+    private static void header(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Writes a sample without labels
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param value The value of the sample
+     */
+    private static void sample(StringBuilder builder, String name, long value) {
+        builder.append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Writes a sample without labels
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param value The value of the sample
+     */
+    private static void sample(StringBuilder builder, String name, double value) {
+        builder.append(name).append(' ');
+        appendDouble(builder, value);
+        builder.append('\n');
+    }
+
+    /**
+     * Writes a sample with a label
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param label The name of the label
+     * @param labelValue The value of the label
+     * @param value The value of the sample
+     */
+    private static void sample(StringBuilder builder, String name, String label, String labelValue, long value) {
+        appendLabel(builder.append(name).append('{'), label, labelValue).append("} ").append(value).append('\n');
+    }
+
+    /**
+     * Writes a sample with a label
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param label The name of the label
+     * @param labelValue The value of the label
+     * @param value The value of the sample
+     */
+    private static void sample(StringBuilder builder, String name, String label, String labelValue, double value) {
+        appendDouble(appendLabel(builder.append(name).append('{'), label, labelValue).append("} "), value).append('\n');
+    }
+
+    /**
+     * Writes a sample with two labels
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param label The name of the first label
+     * @param labelValue The value of the first label
+     * @param secondLabel The name of the second label
+     * @param secondValue The value of the second label
+     * @param value The value of the sample
+     */
+    private static void sample(StringBuilder builder, String name, String label, String labelValue,
+                               String secondLabel, Object secondValue, long value) {
+        appendLabel(builder.append(name).append('{'), label, labelValue).append(',').append(secondLabel).append("=\"")
+                .append(secondValue).append("\"} ").append(value).append('\n');
+    }
+
+    /**
+     * Writes a histogram bucket
+     * @param builder The buffer the sample should be written to
+     * @param name The name of the sample
+     * @param label The name of the label
+     * @param bound The upper bound of the bucket
+     * @param value The amount of values in the bucket
+     */
+    private static void sample(StringBuilder builder, String name, String label, double bound, long value) {
+        builder.append(name).append('{').append(label).append("=\"");
+        appendDouble(builder, bound).append("\"} ").append(value).append('\n');
+    }
+
+    /**
+     * Writes a label
+     * @param builder The buffer the label should be written to
+     * @param label The name of the label
+     * @param labelValue The value of the label, quotes, backslashes and line breaks get escaped
+     * @return the buffer
+     */
+    private static StringBuilder appendLabel(StringBuilder builder, String label, String labelValue) {
+        builder.append(label).append("=\"");
+
+        for (int i = 0; i < labelValue.length(); i++) {
+            char character = labelValue.charAt(i);
+            if (character == '\\' || character == '"') builder.append('\\').append(character);
+            else if (character == '\n') builder.append("\\n");
+            else builder.append(character);
+        }
+
+        return builder.append('"');
+    }
+
+    /**
+     * Writes a floating point value, special values are written the way prometheus expects them
+     * @param builder The buffer the value should be written to
+     * @param value The value
+     * @return the buffer
+     */
+    private static StringBuilder appendDouble(StringBuilder builder, double value) {
+        if (Double.isNaN(value)) return builder.append("NaN");
+        if (Double.isInfinite(value)) return builder.append(value > 0 ? "+Inf" : "-Inf");
+        return builder.append(value);
+    }
+
+}
@@ -0,0 +1,132 @@
+package de.gnmyt.mcdash.api.metrics;
+
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.MetricResolution;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class MetricsStore {
+
+    private static final int MAGIC = 0x4D43544D;
+    private static final int VERSION = 1;
+
+    private final File file;
+    private final Logger logger;
+    private final Map<MetricResolution, MetricSeries> series = new EnumMap<>(MetricResolution.class);
+
+    /**
+     * Basic constructor of the {@link MetricsStore}
+     * Loads the history from the disk if it exists
+     * @param file The file the history is stored in
+     * @param logger The logger problems with the store get reported to
+     */
+    public MetricsStore(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+
+        for (MetricResolution resolution : MetricResolution.values())
+            series.put(resolution, new MetricSeries(resolution, Metric.values().length));
+
+        if (file.exists()) {
+            try {
+                load();
+            } catch (IOException e) {
+                logger.warning("Could not load the metrics history, a new history will be started");
+                for (MetricResolution resolution : MetricResolution.values())
+                    series.put(resolution, new MetricSeries(resolution, Metric.values().length));
+            }
+        }
+    }
+
+    /**
+     * Records a sample in all resolutions
+     * @param time The time of the sample in milliseconds
+     * @param values The values of the sample, indexed by the ordinal of the {@link Metric}
+     */
+    public void record(long time, float[] values) {
+        for (MetricSeries current : series.values()) current.record(time, values);
+    }
+
+    /**
+     * Gets all points of a resolution in a time range
+     * @param resolution The resolution of the points
+     * @param from The start of the range in milliseconds
+     * @param to The end of the range in milliseconds
+     * @return the points in the range
+     */
+    public MetricRange query(MetricResolution resolution, long from, long to) {
+        return series.get(resolution).query(from, to);
+    }
+
+    /**
+     * Gets the finest resolution that still contains the start of a range
+     * @param from The start of the range in milliseconds
+     * @return the finest resolution that covers the range
+     */
+    public MetricResolution getResolution(long from) {
+        long age = System.currentTimeMillis() - from;
+
+        for (MetricResolution resolution : MetricResolution.values()) {
+            if (age <= resolution.getRetention()) return resolution;
+        }
+        return MetricResolution.HOUR;
+    }
+
+    /**
+     * Loads the history from the disk
+     * @throws IOException An exception that will be thrown if the history could not be read
+     */
+    private void load() throws IOException {
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != VERSION || inputStream.readInt() != Metric.values().length)
+                throw new IOException("Invalid metrics history");
+
+            int count = inputStream.readInt();
+            for (int i = 0; i < count; i++) {
+                int resolution = inputStream.readUnsignedByte();
+                if (resolution >= MetricResolution.values().length) throw new IOException("Unknown resolution");
+
+                series.get(MetricResolution.values()[resolution]).read(inputStream);
+            }
+        }
+    }
+
+    /**
+     * Saves the history to the disk
+     */
+    public synchronized void save() {
+        Path tempFile = new File(file.getParentFile(), file.getName() + ".tmp").toPath();
+
+        try {
+            Files.createDirectories(tempFile.getParent());
+
+            try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                outputStream.writeInt(Metric.values().length);
+                outputStream.writeInt(series.size());
+
+                for (Map.Entry<MetricResolution, MetricSeries> current : series.entrySet()) {
+                    outputStream.writeByte(current.getKey().ordinal());
+                    current.getValue().write(outputStream);
+                }
+            }
+
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not save the metrics history: " + e.getMessage());
+        }
+    }
+
+}
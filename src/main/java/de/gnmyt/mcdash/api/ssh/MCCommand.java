@@ -1,26 +1,50 @@
 package de.gnmyt.mcdash.api.ssh;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
-import org.apache.commons.io.FileUtils;
+import de.gnmyt.mcdash.api.controller.SSHController;
+import de.gnmyt.mcdash.api.tasks.ConsoleSubscriber;
+import de.gnmyt.mcdash.api.tasks.ConsoleTailer;
+import org.apache.sshd.common.channel.BufferedIoOutputStream;
+import org.apache.sshd.common.io.IoInputStream;
+import org.apache.sshd.common.io.IoOutputStream;
+import org.apache.sshd.common.io.IoReadFuture;
+import org.apache.sshd.common.util.buffer.Buffer;
+import org.apache.sshd.common.util.buffer.ByteArrayBuffer;
 import org.apache.sshd.server.Environment;
 import org.apache.sshd.server.ExitCallback;
 import org.apache.sshd.server.channel.ChannelSession;
-import org.apache.sshd.server.command.Command;
+import org.apache.sshd.server.command.AsyncCommand;
 import org.bukkit.Bukkit;
 
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class MCCommand implements Command {
+public class MCCommand implements AsyncCommand, ConsoleSubscriber {
 
+    private static final int REPLAY_LINES = 100;
+    private static final int READ_BUFFER_SIZE = 1024;
+
+    private final SSHController controller;
+    private final ConsoleTailer tailer = MinecraftDashboard.getConsoleTailer();
     private final StringBuilder commandBuffer = new StringBuilder();
-    private OutputStream out;
-    private InputStream in;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final Buffer readBuffer = new ByteArrayBuffer(READ_BUFFER_SIZE);
+
+    private IoInputStream in;
+    private IoOutputStream ioOut;
+    private IoOutputStream out;
     private ExitCallback callback;
-    private int currentLine = 0;
+
+    /**
+     * Basic constructor of the {@link MCCommand}
+     * @param controller The {@link SSHController} that keeps track of the active sessions
+     */
+    public MCCommand(SSHController controller) {
+        this.controller = controller;
+    }
 
     @Override
     public void setExitCallback(ExitCallback exitCallback) {
@@ -28,90 +52,115 @@ public class MCCommand implements Command {
     }
 
     @Override
-    public void setErrorStream(OutputStream outputStream) {
+    public void setIoInputStream(IoInputStream inputStream) {
+        this.in = inputStream;
+    }
+
+    @Override
+    public void setIoOutputStream(IoOutputStream outputStream) {
+        this.ioOut = outputStream;
+    }
+
+    @Override
+    public void setIoErrorStream(IoOutputStream errorStream) {
     }
 
     @Override
     public void setInputStream(InputStream inputStream) {
-        this.in = inputStream;
     }
 
     @Override
     public void setOutputStream(OutputStream outputStream) {
-        this.out = outputStream;
+    }
+
+    @Override
+    public void setErrorStream(OutputStream outputStream) {
     }
 
     /**
-     * Starts a new ssh session
+     * Starts a new ssh session. The session does not own a thread, the input gets handled
+     * whenever the client sends new data and the log lines are pushed by the {@link ConsoleTailer}
      * @param channelSession The current {@link ChannelSession}
      * @param environment The current {@link Environment}
      * @throws IOException Will be thrown if the session could not be started
      */
     @Override
     public void start(ChannelSession channelSession, Environment environment) throws IOException {
-        Thread commandExecutionThread = new Thread(this::executeCommands);
-        Thread logReadingThread = new Thread(this::sendLogLines);
-        commandExecutionThread.start();
-        logReadingThread.start();
+        out = new BufferedIoOutputStream("mcdash-shell", channelSession.getChannelId(), ioOut, channelSession);
+        controller.sessionOpened();
+
+        channelSession.addCloseFutureListener(future -> close());
 
-        channelSession.addCloseFutureListener(future -> {
-            commandExecutionThread.interrupt();
-            logReadingThread.interrupt();
-            callback.onExit(0);
-        });
+        tailer.subscribe(this, tailer.getLastLine() - REPLAY_LINES + 1);
+        in.read(readBuffer).addListener(this::handleInput);
     }
 
     /**
-     * Executes the given command, append the command to the command buffer and send the command to the bukkit server
+     * Handles the data the client has sent and waits for the next input
+     * @param future The finished read operation
      */
-    private void executeCommands() {
+    private void handleInput(IoReadFuture future) {
+        if (future.getException() != null || future.getRead() < 0) {
+            exit();
+            return;
+        }
+
         try {
-            while (true) {
-                while (in.available() > 0) {
-                    int c = in.read();
-
-                    if (c == '\r' || c == '\n') {
-                        out.write('\r');
-                        String commandString = commandBuffer.toString();
-                        executeCommand(commandString);
-                        commandBuffer.setLength(0);
-                    } else if (c == '\b' || c == 127) {
-                        handleBackspace();
-                    } else if (c == 3) {
-                        callback.onExit(0);
-                        break;
-                    } else {
-                        appendCommandBuffer(c);
-                    }
+            Buffer buffer = future.getBuffer();
+            while (buffer.available() > 0) {
+                int c = buffer.getByte() & 0xFF;
+
+                if (c == '\r' || c == '\n') {
+                    write(new byte[]{'\r'});
+                    String commandString = commandBuffer.toString();
+                    executeCommand(commandString);
+                    commandBuffer.setLength(0);
+                } else if (c == '\b' || c == 127) {
+                    handleBackspace();
+                } else if (c == 3) {
+                    exit();
+                    return;
+                } else {
+                    appendCommandBuffer(c);
                 }
-
-                if (Thread.interrupted()) break;
-
-                Thread.sleep(100);
             }
-        } catch (Exception ignored) {
+            buffer.clear();
+
+            if (!closed.get()) in.read(buffer).addListener(this::handleInput);
+        } catch (Exception e) {
+            exit();
         }
     }
 
     /**
-     * Sends the log lines to the ssh client
+     * Sends a new log line to the ssh client
+     * @param number The number of the line
+     * @param line The content of the line
+     * @throws IOException Will be thrown if the line could not be sent
      */
-    private void sendLogLines() {
-        try {
-            while (true) {
-                String[] lines = FileUtils.readFileToString(new File("logs/latest.log"), StandardCharsets.UTF_8).split("\n");
-                if (lines.length > currentLine) {
-                    for (int i = currentLine; i < lines.length; i++) out.write((lines[i] + "\r\n").getBytes());
-                    out.flush();
-                    currentLine = lines.length;
-                }
+    @Override
+    public void onLine(long number, String line) throws IOException {
+        write((line + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
 
-                if (Thread.interrupted()) break;
+    /**
+     * Tells the ssh client that log lines have been skipped because the client could not keep up
+     * @param amount The amount of lines that have been skipped
+     * @throws IOException Will be thrown if the message could not be sent
+     */
+    @Override
+    public void onLinesSkipped(long amount) throws IOException {
+        write(("[MCDash] " + amount + " lines skipped\r\n").getBytes(StandardCharsets.UTF_8));
+    }
 
-                Thread.sleep(1000);
-            }
-        } catch (Exception ignored) {
-        }
+    /**
+     * Queues the given bytes for the ssh client
+     * @param bytes The bytes that should be written
+     * @throws IOException Will be thrown if the bytes could not be written
+     */
+    private void write(byte[] bytes) throws IOException {
+        if (closed.get()) throw new IOException("The ssh session has been closed");
+        out.writeBuffer(new ByteArrayBuffer(bytes));
     }
 
     /**
@@ -130,8 +179,7 @@ public class MCCommand implements Command {
     private void handleBackspace() throws IOException {
         if (commandBuffer.length() > 0) {
             commandBuffer.setLength(commandBuffer.length() - 1);
-            out.write("\b \b".getBytes());
-            out.flush();
+            write("\b \b".getBytes());
         }
     }
 
@@ -143,13 +191,31 @@ public class MCCommand implements Command {
     private void appendCommandBuffer(int c) throws IOException {
         if (c >= 32 && c <= 126) {
             commandBuffer.append((char) c);
-            out.write(c);
-            out.flush();
+            write(new byte[]{(byte) c});
         }
     }
 
+    /**
+     * Ends the ssh session
+     */
+    private void exit() {
+        close();
+        if (callback != null) callback.onExit(0);
+    }
+
+    /**
+     * Releases all resources of the session. Can be called multiple times
+     */
+    private void close() {
+        if (!closed.compareAndSet(false, true)) return;
+
+        tailer.unsubscribe(this);
+        controller.sessionClosed();
+        if (out != null) out.close(false);
+    }
+
     @Override
     public void destroy(ChannelSession channelSession) throws Exception {
-
+        close();
     }
 }
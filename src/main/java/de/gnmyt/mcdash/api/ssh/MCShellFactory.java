@@ -1,5 +1,6 @@
 package de.gnmyt.mcdash.api.ssh;
 
+import de.gnmyt.mcdash.api.controller.SSHController;
 import org.apache.sshd.server.channel.ChannelSession;
 import org.apache.sshd.server.command.Command;
 import org.apache.sshd.server.shell.ShellFactory;
@@ -8,6 +9,16 @@ import java.io.IOException;
 
 public class MCShellFactory implements ShellFactory {
 
+    private final SSHController controller;
+
+    /**
+     * Basic constructor of the {@link MCShellFactory}
+     * @param controller The {@link SSHController} that keeps track of the active sessions
+     */
+    public MCShellFactory(SSHController controller) {
+        this.controller = controller;
+    }
+
     /**
      * Creates a new {@link MCCommand} instance
      * @param channelSession The current {@link ChannelSession}
@@ -16,7 +27,7 @@ public class MCShellFactory implements ShellFactory {
      */
     @Override
     public Command createShell(ChannelSession channelSession) throws IOException {
-        return new MCCommand();
+        return new MCCommand(controller);
     }
 
 }
@@ -0,0 +1,31 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import java.io.IOException;
+
+public interface ConsoleSubscriber {
+
+    /**
+     * Receives a new line of the console log. The lines are delivered by a small pool that is shared by all
+     * subscribers, so implementations should buffer the line instead of blocking until the client received it
+     * @param number The number of the line (starting at 1)
+     * @param line The content of the line
+     * @throws IOException Will be thrown if the line could not be delivered. The subscriber gets removed afterwards
+     */
+    void onLine(long number, String line) throws IOException;
+
+    /**
+     * Called periodically while no new lines have been written to keep the connection alive
+     * @throws IOException Will be thrown if the subscriber is no longer reachable. The subscriber gets removed afterwards
+     */
+    default void onHeartbeat() throws IOException {
+    }
+
+    /**
+     * Called if the subscriber fell too far behind and the oldest pending lines had to be dropped
+     * @param amount The amount of lines that have been skipped
+     * @throws IOException Will be thrown if the subscriber is no longer reachable. The subscriber gets removed afterwards
+     */
+    default void onLinesSkipped(long amount) throws IOException {
+    }
+
+}
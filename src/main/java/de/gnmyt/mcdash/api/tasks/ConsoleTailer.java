@@ -0,0 +1,250 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import de.gnmyt.mcdash.api.controller.ConsoleController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConsoleTailer implements Runnable {
+
+    private static final int CAPACITY = 4096;
+    private static final int MAX_REPLAY_LINES = 1000;
+    private static final int BATCH_SIZE = 256;
+    private static final long HEARTBEAT_INTERVAL = TimeUnit.SECONDS.toMillis(15);
+    private static final int DELIVERY_THREADS = 4;
+    private static final int DELIVERY_QUEUE_SIZE = 256;
+
+    private final ConsoleController controller;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ThreadPoolExecutor deliveryExecutor = createDeliveryExecutor();
+
+    private final String[] lines = new String[CAPACITY];
+    private final long[] lineNumbers = new long[CAPACITY];
+    private long head = 0;
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    /**
+     * Basic constructor of the {@link ConsoleTailer}
+     * Fills the buffer with the most recent lines of the log
+     * @param controller The console controller that should be tailed
+     */
+    public ConsoleTailer(ConsoleController controller) {
+        this.controller = controller;
+
+        try {
+            controller.skipToEnd();
+
+            long lastLine = controller.getTailLine();
+            long firstLine = Math.max(1, lastLine - CAPACITY + 1);
+            if (firstLine > lastLine) return;
+
+            String[] recentLines = controller.readLines(firstLine, (int) (lastLine - firstLine + 1)).split("\n", -1);
+            for (int i = 0; i < recentLines.length; i++) append(firstLine + i, recentLines[i]);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Creates the pool that delivers the lines to the subscribers. The pool has a fixed amount of threads,
+     * so many slow subscribers can not start an unbounded amount of threads
+     * @return the created pool
+     */
+    private static ThreadPoolExecutor createDeliveryExecutor() {
+        AtomicInteger threadId = new AtomicInteger();
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(DELIVERY_THREADS, DELIVERY_THREADS, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(DELIVERY_QUEUE_SIZE), runnable -> {
+            Thread thread = new Thread(runnable, "MCDash-Console-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Reads all new lines of the log into the buffer and wakes up every subscriber
+     */
+    @Override
+    public void run() {
+        if (!controller.logExists()) return;
+
+        try {
+            controller.readNewLines((line, number) -> append(number, line));
+        } catch (IOException ignored) {
+        }
+
+        boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= HEARTBEAT_INTERVAL;
+        if (heartbeat) lastHeartbeat = System.currentTimeMillis();
+
+        for (Subscription subscription : subscriptions) {
+            if (heartbeat) subscription.heartbeatPending = true;
+            if (subscription.cursor < getHead() || subscription.heartbeatPending) schedule(subscription);
+        }
+    }
+
+    /**
+     * Adds a line to the ring buffer. The oldest line will be overwritten if the buffer is full
+     * @param number The number of the line in the log
+     * @param line The content of the line
+     */
+    private synchronized void append(long number, String line) {
+        int index = (int) (head % CAPACITY);
+        lines[index] = line;
+        lineNumbers[index] = number;
+        head++;
+    }
+
+    /**
+     * Gets the sequence number of the next line that will be written to the buffer
+     * @return the sequence number of the next line
+     */
+    private synchronized long getHead() {
+        return head;
+    }
+
+    /**
+     * Schedules the delivery of all pending lines to a subscription, unless a delivery is already running.
+     * If the delivery pool is full, the subscription gets scheduled again on the next run of the tailer
+     * @param subscription The subscription that should receive its pending lines
+     */
+    private void schedule(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) return;
+
+        try {
+            deliveryExecutor.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException e) {
+            subscription.draining.set(false);
+        }
+    }
+
+    /**
+     * Delivers all pending lines to a subscription. Every subscription has its own cursor, so a slow
+     * subscriber only delays itself. If a subscriber falls behind by more than the buffer size,
+     * the lines it missed get skipped and the subscriber gets notified about it
+     * @param subscription The subscription that should receive its pending lines
+     */
+    private void drain(Subscription subscription) {
+        String[] batchLines = new String[BATCH_SIZE];
+        long[] batchNumbers = new long[BATCH_SIZE];
+
+        try {
+            while (true) {
+                int size;
+                long skipped = 0;
+
+                synchronized (this) {
+                    if (subscription.cursor < head - CAPACITY) {
+                        skipped = head - CAPACITY - subscription.cursor;
+                        subscription.cursor = head - CAPACITY;
+                    }
+
+                    size = (int) Math.min(BATCH_SIZE, head - subscription.cursor);
+                    for (int i = 0; i < size; i++) {
+                        int index = (int) ((subscription.cursor + i) % CAPACITY);
+                        batchLines[i] = lines[index];
+                        batchNumbers[i] = lineNumbers[index];
+                    }
+                }
+
+                if (skipped > 0) subscription.subscriber.onLinesSkipped(skipped);
+
+                if (size == 0) {
+                    if (subscription.heartbeatPending) {
+                        subscription.heartbeatPending = false;
+                        subscription.subscriber.onHeartbeat();
+                    }
+
+                    subscription.draining.set(false);
+                    if (subscription.cursor == getHead() || !subscription.draining.compareAndSet(false, true)) return;
+                    continue;
+                }
+
+                for (int i = 0; i < size; i++) subscription.subscriber.onLine(batchNumbers[i], batchLines[i]);
+                subscription.cursor += size;
+                subscription.heartbeatPending = false;
+            }
+        } catch (Exception e) {
+            subscriptions.remove(subscription);
+            subscription.draining.set(false);
+        }
+    }
+
+    /**
+     * Adds a new subscriber to the tailer
+     * @param subscriber The subscriber that should receive new lines
+     * @param startLine The first line the subscriber wants to receive. Older lines will be replayed from the buffer
+     *                  (at most {@value MAX_REPLAY_LINES} lines)
+     */
+    public void subscribe(ConsoleSubscriber subscriber, long startLine) {
+        Subscription subscription = new Subscription(subscriber);
+
+        synchronized (this) {
+            long cursor = head;
+            long oldest = Math.max(0, head - Math.min(CAPACITY, MAX_REPLAY_LINES));
+
+            while (cursor > oldest) {
+                long previous = lineNumbers[(int) ((cursor - 1) % CAPACITY)];
+                if (previous < startLine) break;
+                if (cursor != head && previous != lineNumbers[(int) (cursor % CAPACITY)] - 1) break;
+                cursor--;
+            }
+
+            subscription.cursor = cursor;
+        }
+
+        subscriptions.add(subscription);
+        schedule(subscription);
+    }
+
+    /**
+     * Removes a subscriber from the tailer
+     * @param subscriber The subscriber you want to remove
+     */
+    public void unsubscribe(ConsoleSubscriber subscriber) {
+        subscriptions.removeIf(subscription -> subscription.subscriber == subscriber);
+    }
+
+    /**
+     * Gets the number of the last line that has been read from the log
+     * @return the number of the last line that has been read from the log
+     */
+    public synchronized long getLastLine() {
+        return head == 0 ? 0 : lineNumbers[(int) ((head - 1) % CAPACITY)];
+    }
+
+    /**
+     * Gets the amount of current subscribers
+     * @return the amount of current subscribers
+     */
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops the delivery of new lines to all subscribers
+     */
+    public void shutdown() {
+        subscriptions.clear();
+        deliveryExecutor.shutdownNow();
+    }
+
+    private static class Subscription {
+        final ConsoleSubscriber subscriber;
+        final AtomicBoolean draining = new AtomicBoolean(false);
+        volatile long cursor;
+        volatile boolean heartbeatPending;
+
+        Subscription(ConsoleSubscriber subscriber) {
+            this.subscriber = subscriber;
+        }
+    }
+
+}
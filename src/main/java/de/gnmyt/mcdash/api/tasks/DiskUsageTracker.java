@@ -0,0 +1,302 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+public class DiskUsageTracker implements Runnable {
+
+    private static final long RESCAN_INTERVAL = TimeUnit.MINUTES.toMillis(30);
+
+    private final Path root;
+    private final Logger logger;
+
+    private final Map<Path, Long> fileSizes = new HashMap<>();
+    private final Map<WatchKey, Path> watchedFolders = new HashMap<>();
+    private final Map<String, AtomicLong> folderSizes = new ConcurrentHashMap<>();
+    private final AtomicLong totalSize = new AtomicLong();
+
+    private volatile boolean ready;
+    private volatile boolean running = true;
+    private WatchService watchService;
+    private boolean watchLimitReached;
+    private boolean watchLimitReported;
+    private boolean scanning;
+    private long lastScan;
+
+    /**
+     * Basic constructor of the {@link DiskUsageTracker}
+     * @param root The folder that should be tracked (the server folder)
+     * @param logger The logger problems with the tracker get reported to
+     */
+    public DiskUsageTracker(File root, Logger logger) {
+        this.root = root.toPath().toAbsolutePath().normalize();
+        this.logger = logger;
+    }
+
+    /**
+     * Starts the tracker in its own thread
+     */
+    public void start() {
+        Thread thread = new Thread(this, "MCDash-DiskUsage");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Scans the folder once and keeps the sizes up to date with the events of the file system.
+     * The folder gets scanned again from time to time to correct events that have been missed
+     */
+    @Override
+    public void run() {
+        try {
+            watchService = root.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            logger.warning("Could not watch the server folder, the disk usage will only be updated every "
+                    + TimeUnit.MILLISECONDS.toMinutes(RESCAN_INTERVAL) + " minutes");
+        }
+
+        scan();
+        ready = true;
+
+        while (running) {
+            WatchKey key = null;
+            try {
+                if (watchService != null) {
+                    key = watchService.poll(Math.max(1, lastScan + RESCAN_INTERVAL - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                } else Thread.sleep(Math.max(1, lastScan + RESCAN_INTERVAL - System.currentTimeMillis()));
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            if (key != null && !processEvents(key)) scan();
+            if (System.currentTimeMillis() - lastScan >= RESCAN_INTERVAL) scan();
+        }
+    }
+
+    /**
+     * Processes the events of a watched folder
+     * @param key The key of the folder
+     * @return <code>false</code> if events have been lost and the folder has to be scanned again, otherwise <code>true</code>
+     */
+    private boolean processEvents(WatchKey key) {
+        Path folder = watchedFolders.get(key);
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) return false;
+            if (folder == null) continue;
+
+            Path path = folder.resolve((Path) event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                removePath(path);
+            } else if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) walk(path);
+            } else updateFile(path);
+        }
+
+        if (!key.reset()) watchedFolders.remove(key);
+        return true;
+    }
+
+    /**
+     * Scans the whole folder again and replaces all sizes. The previous totals stay visible until the scan is complete
+     */
+    private void scan() {
+        lastScan = System.currentTimeMillis();
+
+        watchedFolders.keySet().forEach(WatchKey::cancel);
+        watchedFolders.clear();
+        fileSizes.clear();
+        watchLimitReached = false;
+
+        scanning = true;
+        walk(root);
+        scanning = false;
+
+        Map<String, Long> folders = new HashMap<>();
+        long total = 0;
+        for (Map.Entry<Path, Long> file : fileSizes.entrySet()) {
+            folders.merge(getFolder(file.getKey()), file.getValue(), Long::sum);
+            total += file.getValue();
+        }
+
+        folderSizes.keySet().retainAll(folders.keySet());
+        folders.forEach((folder, size) -> folderSizes.computeIfAbsent(folder, name -> new AtomicLong()).set(size));
+        totalSize.set(total);
+    }
+
+    /**
+     * Adds all files of a folder and starts watching all of its sub folders
+     * @param start The folder that should be added
+     */
+    private void walk(Path start) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    watch(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) setSize(file, attrs.size());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Starts watching a folder. If the watch limit of the operating system is reached,
+     * the folder is only updated by the regular scans
+     * @param folder The folder that should be watched
+     */
+    private void watch(Path folder) {
+        if (watchService == null || watchLimitReached) return;
+
+        try {
+            watchedFolders.put(folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), folder);
+        } catch (IOException e) {
+            watchLimitReached = true;
+            if (watchLimitReported) return;
+
+            watchLimitReported = true;
+            logger.warning("Could not watch all folders of the server (" + e.getMessage() + "), some changes will only show up after "
+                    + TimeUnit.MILLISECONDS.toMinutes(RESCAN_INTERVAL) + " minutes");
+        }
+    }
+
+    /**
+     * Updates the size of a file that has been created or modified
+     * @param file The file
+     */
+    private void updateFile(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            if (attributes.isRegularFile()) setSize(file, attributes.size());
+        } catch (IOException e) {
+            removePath(file);
+        }
+    }
+
+    /**
+     * Sets the size of a file and updates the totals
+     * @param file The file
+     * @param size The new size of the file
+     */
+    private void setSize(Path file, long size) {
+        Long previous = fileSizes.put(file, size);
+        addSize(file, size - (previous != null ? previous : 0));
+    }
+
+    /**
+     * Removes a deleted file or folder from the totals
+     * @param path The path of the file or folder
+     */
+    private void removePath(Path path) {
+        Long previous = fileSizes.remove(path);
+        if (previous != null) {
+            addSize(path, -previous);
+            return;
+        }
+
+        Iterator<Map.Entry<Path, Long>> iterator = fileSizes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Path, Long> file = iterator.next();
+            if (!file.getKey().startsWith(path)) continue;
+
+            addSize(file.getKey(), -file.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Adds a size difference to the totals
+     * @param file The file that has been changed
+     * @param difference The difference of the size
+     */
+    private void addSize(Path file, long difference) {
+        if (difference == 0 || scanning) return;
+
+        folderSizes.computeIfAbsent(getFolder(file), name -> new AtomicLong()).addAndGet(difference);
+        totalSize.addAndGet(difference);
+    }
+
+    /**
+     * Gets the top level folder a file belongs to
+     * @param file The file
+     * @return the name of the top level folder or an empty string for files in the root folder
+     */
+    private String getFolder(Path file) {
+        Path relative = root.relativize(file);
+        return relative.getNameCount() > 1 ? relative.getName(0).toString() : "";
+    }
+
+    /**
+     * Gets the size of all files in the folder
+     * @return the total size in bytes
+     */
+    public long getTotalSize() {
+        return totalSize.get();
+    }
+
+    /**
+     * Gets the size of all top level folders. Files in the root folder are summed up with an empty name
+     * @return the sizes of the top level folders, sorted by their name
+     */
+    public Map<String, Long> getFolderSizes() {
+        Map<String, Long> sizes = new TreeMap<>();
+        folderSizes.forEach((folder, size) -> {
+            if (size.get() > 0) sizes.put(folder, size.get());
+        });
+        return sizes;
+    }
+
+    /**
+     * Checks if the first scan has been completed
+     * @return <code>true</code> if the sizes are complete, otherwise <code>false</code>
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Stops the tracker
+     */
+    public void shutdown() {
+        running = false;
+
+        try {
+            if (watchService != null) watchService.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.TickStats;
+import de.gnmyt.mcdash.api.entities.TickWindow;
+import de.gnmyt.mcdash.api.metrics.MetricsStore;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.List;
+
+public class MetricsSampler implements Runnable {
+
+    /**
+     * The time between two samples in ticks (5 seconds)
+     */
+    public static final long INTERVAL = 100;
+
+    private final MetricsStore store;
+    private final TickProfiler profiler;
+    private final float[] values = new float[Metric.values().length];
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final OperatingSystemMXBean system = ManagementFactory.getOperatingSystemMXBean();
+    private long lastGcTime = -1;
+    private volatile int worlds;
+
+    /**
+     * Basic constructor of the {@link MetricsSampler}
+     * @param store The store the samples should be recorded in
+     * @param profiler The profiler the tick times are taken from
+     */
+    public MetricsSampler(MetricsStore store, TickProfiler profiler) {
+        this.store = store;
+        this.profiler = profiler;
+    }
+
+    /**
+     * Takes a sample of all metrics. Runs on the main thread, because the worlds can only be read from there
+     */
+    @Override
+    public void run() {
+        TickStats ticks = profiler.getStats(TickWindow.FIVE_SECONDS);
+
+        List<World> loadedWorlds = Bukkit.getWorlds();
+        int chunks = 0, entities = 0;
+        for (World world : loadedWorlds) {
+            chunks += world.getLoadedChunks().length;
+            entities += world.getEntities().size();
+        }
+        worlds = loadedWorlds.size();
+
+        values[Metric.TPS.ordinal()] = (float) ticks.getTps();
+        values[Metric.MSPT.ordinal()] = (float) ticks.getMean();
+        values[Metric.HEAP.ordinal()] = memory.getHeapMemoryUsage().getUsed();
+        values[Metric.GC.ordinal()] = getGcTime();
+        values[Metric.CPU.ordinal()] = getCpuUsage();
+        values[Metric.PLAYERS.ordinal()] = Bukkit.getOnlinePlayers().size();
+        values[Metric.CHUNKS.ordinal()] = chunks;
+        values[Metric.ENTITIES.ordinal()] = entities;
+
+        store.record(System.currentTimeMillis(), values);
+    }
+
+    /**
+     * Gets the value of a metric from the last sample
+     * @param metric The metric
+     * @return the value of the metric
+     */
+    public float getLatest(Metric metric) {
+        return values[metric.ordinal()];
+    }
+
+    /**
+     * Gets the amount of loaded worlds from the last sample
+     * @return the amount of loaded worlds
+     */
+    public int getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * Gets the time all garbage collectors took since the last sample
+     * @return the time in milliseconds
+     */
+    private float getGcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : collectors) total += Math.max(0, collector.getCollectionTime());
+
+        long difference = lastGcTime < 0 ? 0 : total - lastGcTime;
+        lastGcTime = total;
+        return difference;
+    }
+
+    /**
+     * Gets the cpu usage of the server process
+     * @return the cpu usage in percent or 0 if the jvm does not report it
+     */
+    private float getCpuUsage() {
+        if (!(system instanceof com.sun.management.OperatingSystemMXBean)) return 0;
+
+        double load = ((com.sun.management.OperatingSystemMXBean) system).getProcessCpuLoad();
+        return load < 0 ? 0 : (float) (load * 100);
+    }
+
+}
@@ -0,0 +1,251 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import de.gnmyt.mcdash.api.entities.TickStats;
+import de.gnmyt.mcdash.api.entities.TickWindow;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TickProfiler implements Runnable, Listener {
+
+    private static final String TICK_END_EVENT = "com.destroystokyo.paper.event.server.ServerTickEndEvent";
+
+    private static final int CAPACITY = 1 << 15;
+    private static final int MASK = CAPACITY - 1;
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_BITS = 26;
+    private static final int BUCKETS = 2 * SUB_BUCKETS + (MAX_BITS - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private static final long[] DURATION_BOUNDS = {1, 2, 5, 10, 20, 30, 40, 50, 75, 100, 150, 250, 500, 1000};
+
+    private static final long TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final double MAX_TPS = 20.0;
+
+    private final AtomicLongArray durations = new AtomicLongArray(CAPACITY);
+    private final AtomicLongArray endTimes = new AtomicLongArray(CAPACITY);
+    private final AtomicLongArray durationCounts = new AtomicLongArray(DURATION_BOUNDS.length + 1);
+    private volatile long totalTime;
+
+    private volatile long head;
+    private volatile boolean tickEvents;
+    private long startTime;
+    private long lastTick;
+
+    /**
+     * Starts profiling the ticks of the server. On paper the duration of every tick is reported by the server,
+     * other servers only allow measuring the time between two ticks
+     * @param plugin The plugin the listener or the task should be registered for
+     */
+    public void start(Plugin plugin) {
+        startTime = System.nanoTime();
+        tickEvents = registerTickEvent(plugin);
+
+        if (!tickEvents) Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, this, 0, 1);
+    }
+
+    /**
+     * Registers the tick end event of paper. The duration gets read with a method handle,
+     * so no reflection objects are created while the server ticks
+     * @param plugin The plugin the listener should be registered for
+     * @return <code>true</code> if the event has been registered, otherwise <code>false</code>
+     */
+    private boolean registerTickEvent(Plugin plugin) {
+        try {
+            Class<? extends Event> event = Class.forName(TICK_END_EVENT).asSubclass(Event.class);
+            MethodHandle tickDuration = MethodHandles.publicLookup()
+                    .findVirtual(event, "getTickDuration", MethodType.methodType(double.class))
+                    .asType(MethodType.methodType(double.class, Event.class));
+
+            Bukkit.getPluginManager().registerEvent(event, this, EventPriority.MONITOR, (listener, tickEvent) -> {
+                try {
+                    record((long) ((double) tickDuration.invokeExact(tickEvent) * 1_000_000), System.nanoTime());
+                } catch (Throwable ignored) {
+                }
+            }, plugin);
+            return true;
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the time since the last tick. Only used if the server does not report the duration of its ticks
+     */
+    @Override
+    public void run() {
+        long now = System.nanoTime();
+        if (lastTick != 0) record(now - lastTick, now);
+        lastTick = now;
+    }
+
+    /**
+     * Records a tick. Only the main thread of the server writes ticks, so no locks are needed
+     * @param duration The duration of the tick in nanoseconds
+     * @param endTime The time the tick ended at ({@link System#nanoTime()})
+     */
+    private void record(long duration, long endTime) {
+        long index = head;
+        int slot = (int) (index & MASK);
+
+        durations.lazySet(slot, duration);
+        endTimes.lazySet(slot, endTime);
+
+        int bucket = 0;
+        while (bucket < DURATION_BOUNDS.length && duration > TimeUnit.MILLISECONDS.toNanos(DURATION_BOUNDS[bucket])) bucket++;
+        durationCounts.lazySet(bucket, durationCounts.get(bucket) + 1);
+
+        totalTime = totalTime + duration;
+        head = index + 1;
+    }
+
+    /**
+     * Gets the statistics of all ticks in a window
+     * @param window The window that should be summarized
+     * @return the statistics of the ticks
+     */
+    public TickStats getStats(TickWindow window) {
+        long now = System.nanoTime();
+        long from = now - window.getNanos();
+        long last = head;
+
+        long[] histogram = new long[BUCKETS];
+        int ticks = 0, slowTicks = 0;
+        long total = 0, max = 0;
+
+        for (long index = last - 1; index >= 0 && index >= last - CAPACITY; index--) {
+            int slot = (int) (index & MASK);
+            if (endTimes.get(slot) - from < 0) break;
+
+            long duration = durations.get(slot);
+            histogram[getBucket(TimeUnit.NANOSECONDS.toMicros(duration))]++;
+            ticks++;
+            total += duration;
+            max = Math.max(max, duration);
+            if (duration > TICK_BUDGET) slowTicks++;
+        }
+
+        double elapsed = Math.min(window.getNanos(), now - startTime) / 1_000_000_000.0;
+        double tps = elapsed > 0 ? Math.min(MAX_TPS, ticks / elapsed) : MAX_TPS;
+
+        return new TickStats(ticks, slowTicks, tps, ticks > 0 ? toMillis(total / ticks) : 0,
+                getPercentile(histogram, ticks, 0.5), getPercentile(histogram, ticks, 0.95),
+                getPercentile(histogram, ticks, 0.99), toMillis(max));
+    }
+
+    /**
+     * Gets a percentile from a histogram
+     * @param histogram The counts of all buckets
+     * @param count The total amount of values in the histogram
+     * @param percentile The percentile (between 0 and 1)
+     * @return the value of the percentile in milliseconds
+     */
+    private double getPercentile(long[] histogram, int count, double percentile) {
+        if (count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int bucket = 0; bucket < histogram.length; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= target) return getBucketValue(bucket) / 1000.0;
+        }
+        return getBucketValue(histogram.length - 1) / 1000.0;
+    }
+
+    /**
+     * Gets the bucket of a value. Values below 64 get their own bucket, larger values are split into
+     * 32 buckets per power of two, so every bucket is at most about 3% wide
+     * @param micros The value in microseconds
+     * @return the index of the bucket
+     */
+    static int getBucket(long micros) {
+        long value = Math.min(Math.max(micros, 0), (1L << MAX_BITS) - 1);
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (value >> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Gets the value in the middle of a bucket
+     * @param bucket The index of the bucket
+     * @return the value of the bucket in microseconds
+     */
+    static double getBucketValue(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+
+        int shift = (bucket - 2 * SUB_BUCKETS) / SUB_BUCKETS + 1;
+        long lowest = (long) ((bucket - 2 * SUB_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) - 1) / 2.0;
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds
+     * @param nanos The nanoseconds
+     * @return the milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Gets the amount of buckets of the tick duration histogram, without the bucket for longer ticks
+     * @return the amount of buckets
+     */
+    public int getDurationBuckets() {
+        return DURATION_BOUNDS.length;
+    }
+
+    /**
+     * Gets the upper bound of a bucket of the tick duration histogram
+     * @param bucket The index of the bucket
+     * @return the upper bound in milliseconds
+     */
+    public long getDurationBound(int bucket) {
+        return DURATION_BOUNDS[bucket];
+    }
+
+    /**
+     * Gets the amount of ticks in a bucket of the tick duration histogram since the profiler has been started.
+     * The index {@link #getDurationBuckets()} contains the ticks that were longer than the last bound
+     * @param bucket The index of the bucket
+     * @return the amount of ticks in the bucket (not cumulative)
+     */
+    public long getDurationCount(int bucket) {
+        return durationCounts.get(bucket);
+    }
+
+    /**
+     * Gets the amount of ticks since the profiler has been started
+     * @return the amount of ticks
+     */
+    public long getTotalTicks() {
+        return head;
+    }
+
+    /**
+     * Gets the duration of all ticks since the profiler has been started
+     * @return the duration in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Checks if the duration of the ticks is reported by the server
+     * @return <code>true</code> if the server reports the tick durations, <code>false</code> if the time between the ticks is measured
+     */
+    public boolean isTickEvents() {
+        return tickEvents;
+    }
+
+}
@@ -1,19 +1,17 @@
 package de.gnmyt.mcdash.panel.routes;
 
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.controller.ConsoleController;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
-import org.apache.commons.io.FileUtils;
 import org.bukkit.Bukkit;
 
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-
 
 public class ConsoleRoute extends DefaultHandler {
 
+    private final ConsoleController controller = MinecraftDashboard.getConsoleController();
+
     @Override
     public String path() {
         return "console";
@@ -39,22 +37,12 @@ public class ConsoleRoute extends DefaultHandler {
             return;
         }
 
-        Path path = Paths.get("logs/latest.log");
-        if (!Files.exists(path)) {
+        if (!controller.logExists()) {
             response.code(500).message("The log file does not exist");
             return;
         }
 
-        String[] lines = FileUtils.readFileToString(path.toFile(), StandardCharsets.UTF_8).split("\n");
-
-        StringBuilder log = new StringBuilder();
-        for (int i = startLine - 1; i < lines.length; i++) {
-            if (i >= startLine + limit - 1) break;
-            if (i != startLine - 1) log.append("\n");
-            log.append(lines[i]);
-        }
-
-        response.text(log.toString());
+        response.text(controller.readLines(startLine, limit));
     }
 
     /**
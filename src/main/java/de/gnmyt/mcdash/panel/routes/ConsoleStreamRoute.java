@@ -0,0 +1,159 @@
+package de.gnmyt.mcdash.panel.routes;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.HTTPMethod;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.tasks.ConsoleSubscriber;
+import de.gnmyt.mcdash.api.tasks.ConsoleTailer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConsoleStreamRoute extends DefaultHandler {
+
+    private static final int EVENT_BUFFER_SIZE = 1024;
+    private static final AtomicInteger STREAM_ID = new AtomicInteger();
+
+    private final ConsoleTailer tailer = MinecraftDashboard.getConsoleTailer();
+
+    @Override
+    public String path() {
+        return "console/stream";
+    }
+
+    /**
+     * Streams the console log as server-sent events.
+     * Every event contains one line, the id of the event is the line number
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) throws Exception {
+        Integer startLine = getIntegerFromQuery(request, "startLine");
+
+        String lastEventId = request.getHeaders().getFirst("Last-Event-ID");
+        if (lastEventId != null) {
+            try {
+                startLine = Integer.parseInt(lastEventId) + 1;
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        if (startLine != null && startLine < 1) {
+            response.code(400).message("The start line must be greater than 0");
+            return;
+        }
+
+        response.header("Cache-Control", "no-cache").header("X-Accel-Buffering", "no");
+        OutputStream stream = response.stream(ContentType.EVENT_STREAM);
+        if (request.getMethod() == HTTPMethod.HEAD) return;
+
+        EventStream eventStream = new EventStream(response, stream);
+        tailer.subscribe(eventStream, startLine != null ? startLine : Long.MAX_VALUE);
+        eventStream.start();
+    }
+
+    /**
+     * A subscriber that writes the console events of one client. The tailer only puts the events into a bounded
+     * buffer, the events are written to the client by its own thread. This way a slow client only delays itself
+     * and gets disconnected once its buffer is full, instead of blocking a shared delivery thread
+     */
+    private class EventStream implements ConsoleSubscriber, Runnable {
+
+        private final BlockingQueue<String> events = new ArrayBlockingQueue<>(EVENT_BUFFER_SIZE);
+        private final ResponseController response;
+        private final OutputStream stream;
+        private final Thread writer;
+        private volatile boolean closed;
+
+        /**
+         * Basic constructor of the {@link EventStream}
+         * @param response The response controller of the stream
+         * @param stream The stream the events should be written to
+         */
+        EventStream(ResponseController response, OutputStream stream) {
+            this.response = response;
+            this.stream = stream;
+            this.writer = new Thread(this, "MCDash-ConsoleStream-" + STREAM_ID.incrementAndGet());
+            this.writer.setDaemon(true);
+        }
+
+        /**
+         * Starts writing the events to the client
+         */
+        void start() {
+            writer.start();
+        }
+
+        @Override
+        public void onLine(long number, String line) throws IOException {
+            offer("id: " + number + "\ndata: " + line.replace("\r", "") + "\n\n");
+        }
+
+        @Override
+        public void onHeartbeat() throws IOException {
+            offer(": keep-alive\n\n");
+        }
+
+        @Override
+        public void onLinesSkipped(long amount) throws IOException {
+            offer(": " + amount + " lines skipped\n\n");
+        }
+
+        /**
+         * Adds an event to the buffer of the client without blocking
+         * @param event The event that should be sent
+         * @throws IOException Will be thrown if the stream has been closed or the client can not keep up
+         */
+        private void offer(String event) throws IOException {
+            if (closed) throw new IOException("The console stream has been closed");
+
+            if (!events.offer(event)) {
+                close();
+                throw new IOException("The client could not keep up with the console stream");
+            }
+        }
+
+        /**
+         * Writes the buffered events to the client until the stream gets closed
+         */
+        @Override
+        public void run() {
+            List<String> batch = new ArrayList<>();
+
+            try {
+                while (!closed) {
+                    batch.add(events.take());
+                    events.drainTo(batch);
+
+                    for (String event : batch) stream.write(event.getBytes(StandardCharsets.UTF_8));
+                    stream.flush();
+                    batch.clear();
+                }
+            } catch (IOException | InterruptedException ignored) {
+            } finally {
+                closed = true;
+                tailer.unsubscribe(this);
+                response.getExchange().close();
+            }
+        }
+
+        /**
+         * Closes the stream. Interrupting the writer also aborts a write the client does not accept
+         */
+        private void close() {
+            closed = true;
+            writer.interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package de.gnmyt.mcdash.panel.routes;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.metrics.MetricsExporter;
+
+import java.nio.charset.StandardCharsets;
+
+public class MetricsRoute extends DefaultHandler {
+
+    private final MetricsExporter exporter = new MetricsExporter(MinecraftDashboard.getTickProfiler(),
+            MinecraftDashboard.getMetricsSampler(), MinecraftDashboard.getHttpExecutor(),
+            MinecraftDashboard.getBackupJobManager(), MinecraftDashboard.getRouteRegistry().getRoutes());
+
+    /**
+     * Gets the context path of the route. Prometheus expects the metrics at <code>/metrics</code>
+     * @return the context path of the route
+     */
+    @Override
+    public String getContextPath() {
+        return "/metrics";
+    }
+
+    /**
+     * Gets the metrics of the jvm, the server and the dashboard in the text exposition format of prometheus
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) {
+        response.type(ContentType.PROMETHEUS).bytes(exporter.export().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
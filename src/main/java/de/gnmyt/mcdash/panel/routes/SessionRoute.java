@@ -0,0 +1,45 @@
+package de.gnmyt.mcdash.panel.routes;
+
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+
+public class SessionRoute extends DefaultHandler {
+
+    @Override
+    public String path() {
+        return "session";
+    }
+
+    /**
+     * Creates a new session token for the authenticated user.
+     * The token can be sent as <code>Bearer</code> authorization instead of the credentials
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void post(Request request, ResponseController response) {
+        String token = sessionController.createToken(request.getUsername());
+
+        response.json("token=\"" + token + "\"", "expires=" + token.split("\\.")[1]);
+    }
+
+    /**
+     * Revokes the session token the request has been sent with
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void delete(Request request, ResponseController response) {
+        String authHeader = request.getHeaders().getFirst("Authorization");
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            response.code(400).message("The request has not been sent with a session token");
+            return;
+        }
+
+        sessionController.revokeToken(authHeader.substring("Bearer ".length()).trim());
+        response.message("Session revoked");
+    }
+
+}
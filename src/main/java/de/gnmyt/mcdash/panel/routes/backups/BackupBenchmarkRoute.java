@@ -0,0 +1,72 @@
+package de.gnmyt.mcdash.panel.routes.backups;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.CodecBenchmark;
+import de.gnmyt.mcdash.api.config.BackupManager;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.json.NodeBuilder;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import java.io.File;
+
+public class BackupBenchmarkRoute extends DefaultHandler {
+
+    private static final int DEFAULT_SIZE = 64;
+    private static final int MAX_SIZE = 64;
+
+    private final BackupManager backupManager = MinecraftDashboard.getBackupManager();
+
+    @Override
+    public String path() {
+        return "benchmark";
+    }
+
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.LONG_RUNNING;
+    }
+
+    /**
+     * Compares the compression ratio and speed of all backup codecs on a sample of a world
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     * @throws Exception An exception that can occur while executing the code
+     */
+    @Override
+    public void get(Request request, ResponseController response) throws Exception {
+        String worldName = getStringFromQuery(request, "world");
+        World world = worldName != null ? Bukkit.getWorld(worldName) : Bukkit.getWorlds().stream().findFirst().orElse(null);
+
+        if (world == null) {
+            response.code(404).message("World not found");
+            return;
+        }
+
+        Integer size = getIntegerFromQuery(request, "size");
+        int sampleSize = Math.max(1, Math.min(size != null ? size : DEFAULT_SIZE, MAX_SIZE)) * 1024 * 1024;
+
+        CodecBenchmark benchmark = new CodecBenchmark(new File(backupManager.getBackupPath()),
+                backupManager.getCompressionLevel(), backupManager.getZstdLevel());
+
+        ArrayBuilder results = new ArrayBuilder();
+        for (CodecBenchmark.Result result : benchmark.run(world.getWorldFolder(), sampleSize)) {
+            new NodeBuilder(results)
+                    .add("codec", result.getCodec().name().toLowerCase())
+                    .add("available", result.getCodec().isAvailable())
+                    .add("input_size", result.getInputSize())
+                    .add("output_size", result.getOutputSize())
+                    .add("ratio", result.getRatio())
+                    .add("compress_speed", result.getCompressSpeed())
+                    .add("decompress_speed", result.getDecompressSpeed())
+                    .register();
+        }
+
+        response.type(ContentType.JSON).text(results.toJSON());
+    }
+}
@@ -1,11 +1,17 @@
 package de.gnmyt.mcdash.panel.routes.backups;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.BackupInfo;
 import de.gnmyt.mcdash.api.controller.BackupController;
+import de.gnmyt.mcdash.api.entities.BackupFormat;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
+import de.gnmyt.mcdash.api.http.HTTPMethod;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
-import org.apache.commons.io.FileUtils;
+
+import java.io.OutputStream;
 
 public class BackupDownloadRoute extends DefaultHandler {
 
@@ -16,8 +22,14 @@ public class BackupDownloadRoute extends DefaultHandler {
         return "download";
     }
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.IO;
+    }
+
     /**
-     * Downloads a backup
+     * Downloads a backup. Zip and tar backups are sent as they are stored, so the download can be resumed.
+     * Snapshots are converted into a zip file while they are sent
      * @param request The request object from the HttpExchange
      * @param response The response controller from the HttpExchange
      * @throws Exception An exception that can occur while executing the code
@@ -33,8 +45,22 @@ public class BackupDownloadRoute extends DefaultHandler {
             return;
         }
 
-        response.header("Content-Disposition", "attachment; filename=Backup.zip");
+        BackupInfo backup = controller.getBackupInfo(backupId);
+        String fileName = "Backup-" + BackupFormat.stripExtension(backup.getFile().getName());
+
+        if (backup.getFormat() == BackupFormat.SNAPSHOT) {
+            response.header("Content-Disposition", "attachment; filename=\"" + fileName + ".zip\"");
+
+            try (OutputStream outputStream = response.stream(ContentType.ZIP)) {
+                if (request.getMethod() != HTTPMethod.HEAD) controller.writeZip(backupId, outputStream);
+            }
+            return;
+        }
+
+        response.type(ContentType.getContentType(backup.getFormat().getExtension()))
+                .header("Content-Disposition", "attachment; filename=\"" + fileName + "." + backup.getFormat().getExtension() + "\"");
 
-        response.bytes(FileUtils.readFileToByteArray(controller.getBackup(backupId)));
+        if (backup.getChecksum() != null) response.header("X-Checksum-SHA256", backup.getChecksum());
+        response.file(backup.getFile());
     }
 }
@@ -0,0 +1,91 @@
+package de.gnmyt.mcdash.panel.routes.backups;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.BackupJob;
+import de.gnmyt.mcdash.api.backup.BackupJobManager;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.json.NodeBuilder;
+
+public class BackupJobRoute extends DefaultHandler {
+
+    private final BackupJobManager jobManager = MinecraftDashboard.getBackupJobManager();
+
+    @Override
+    public String path() {
+        return "jobs";
+    }
+
+    /**
+     * Gets the progress of all backup jobs or of a single job
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     * @throws Exception An exception that can occur while executing the code
+     */
+    @Override
+    public void get(Request request, ResponseController response) throws Exception {
+        ArrayBuilder jobs = new ArrayBuilder();
+
+        if (getStringFromQuery(request, "job_id") != null) {
+            Integer jobId = getIntegerFromQuery(request, "job_id");
+            BackupJob job = jobId != null ? jobManager.getJob(jobId) : null;
+
+            if (job == null) {
+                response.code(404).message("Job not found");
+                return;
+            }
+
+            response.type(ContentType.JSON).text(createNode(jobs, job).getNode().toString());
+            return;
+        }
+
+        for (BackupJob job : jobManager.getJobs()) createNode(jobs, job).register();
+
+        response.type(ContentType.JSON).text(jobs.toJSON());
+    }
+
+    /**
+     * Cancels a queued or running backup job
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     * @throws Exception An exception that can occur while executing the code
+     */
+    @Override
+    public void delete(Request request, ResponseController response) throws Exception {
+        if (!isIntegerInBody(request, response, "job_id")) return;
+
+        if (!jobManager.cancel(getIntegerFromBody(request, "job_id"))) {
+            response.code(404).message("Job not found or already finished");
+            return;
+        }
+
+        response.message("Job cancelled");
+    }
+
+    /**
+     * Creates the json node of a job
+     * @param jobs The array the node belongs to
+     * @param job The job
+     * @return the node of the job
+     */
+    private NodeBuilder createNode(ArrayBuilder jobs, BackupJob job) {
+        return new NodeBuilder(jobs)
+                .add("id", job.getId())
+                .add("modes", job.getModes().split(""))
+                .add("state", job.getState().name().toLowerCase())
+                .add("files", job.getProcessedFiles())
+                .add("total_files", job.getTotalFiles())
+                .add("bytes", job.getProcessedBytes())
+                .add("total_bytes", job.getTotalBytes())
+                .add("staged_bytes", job.getStagedBytes())
+                .add("eta", job.getEta())
+                .add("error", job.getError())
+                .add("created", job.getCreatedAt())
+                .add("started", job.getStartedAt())
+                .add("finished", job.getFinishedAt());
+    }
+
+}
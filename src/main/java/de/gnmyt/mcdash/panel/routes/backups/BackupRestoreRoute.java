@@ -3,6 +3,7 @@ package de.gnmyt.mcdash.panel.routes.backups;
 import de.gnmyt.mcdash.MinecraftDashboard;
 import de.gnmyt.mcdash.api.controller.BackupController;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 
@@ -15,6 +16,11 @@ public class BackupRestoreRoute extends DefaultHandler {
         return "restore";
     }
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.LONG_RUNNING;
+    }
+
     /**
      * Restores a backup
      * @param request The request object from the HttpExchange
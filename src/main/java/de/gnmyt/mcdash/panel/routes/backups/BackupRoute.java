@@ -1,10 +1,15 @@
 package de.gnmyt.mcdash.panel.routes.backups;
 
 import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.backup.BackupInfo;
+import de.gnmyt.mcdash.api.backup.BackupJob;
 import de.gnmyt.mcdash.api.controller.BackupController;
+import de.gnmyt.mcdash.api.entities.BackupJobState;
 import de.gnmyt.mcdash.api.entities.BackupMode;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
+import de.gnmyt.mcdash.api.http.HTTPMethod;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import de.gnmyt.mcdash.api.json.ArrayBuilder;
@@ -15,6 +20,7 @@ import org.bukkit.Bukkit;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
 
 public class BackupRoute extends DefaultHandler {
 
@@ -45,10 +51,7 @@ public class BackupRoute extends DefaultHandler {
                 break;
             }
 
-            if (backupMode == BackupMode.WORLDS) Bukkit.getWorlds().forEach(world -> {
-                Bukkit.getScheduler().runTask(MinecraftDashboard.getInstance(), world::save);
-                directories.add(world.getWorldFolder());
-            });
+            if (backupMode == BackupMode.WORLDS) Bukkit.getWorlds().forEach(world -> directories.add(world.getWorldFolder()));
 
             if (backupMode == BackupMode.PLUGINS) directories.add(new File("plugins"));
 
@@ -64,6 +67,17 @@ public class BackupRoute extends DefaultHandler {
 
     private final BackupController controller = MinecraftDashboard.getBackupController();
 
+    /**
+     * Only a backup that should be awaited blocks its thread, so listing and deleting the backups
+     * never waits behind a running backup
+     * @param method The http method of the request or <code>null</code> if the method is not supported
+     * @return the execution class of the request
+     */
+    @Override
+    public ExecutionClass executionClass(HTTPMethod method) {
+        return method == HTTPMethod.PUT ? ExecutionClass.LONG_RUNNING : ExecutionClass.IO;
+    }
+
     /**
      * Gets a list of all backups
      * @param request The request object from the HttpExchange
@@ -75,12 +89,15 @@ public class BackupRoute extends DefaultHandler {
         ArrayBuilder backups = new ArrayBuilder();
 
         try {
-            for (File backup : controller.getBackups())
+            for (BackupInfo backup : controller.getBackups()) {
                 new NodeBuilder(backups)
-                        .add("id", Long.parseLong(backup.getName().replace(".zip", "").split("-")[0]))
-                        .add("modes", backup.getName().replace(".zip", "").split("-")[1].split(""))
-                        .add("size", backup.length())
+                        .add("id", Long.parseLong(backup.getId()))
+                        .add("modes", backup.getModes().split(""))
+                        .add("size", backup.getSize())
+                        .add("format", backup.getFormat().name().toLowerCase())
+                        .add("checksum", backup.getChecksum())
                         .register();
+            }
         } catch (Exception e) {
             response.code(500).message("The backups are not well formatted. Please check your backups folder");
             return;
@@ -90,7 +107,8 @@ public class BackupRoute extends DefaultHandler {
     }
 
     /**
-     * Creates a new backup
+     * Creates a new backup. The backup gets queued as a job and the id of the job is returned immediately,
+     * if <code>wait</code> is set the request waits until the backup has been written
      * @param request The request object from the HttpExchange
      * @param response The response controller from the HttpExchange
      * @throws Exception An exception that can occur while executing the code
@@ -108,9 +126,26 @@ public class BackupRoute extends DefaultHandler {
             return;
         }
 
-        controller.createBackup(mode, directories.toArray(new File[0]));
+        BackupJob job;
+        try {
+            job = MinecraftDashboard.getBackupJobManager().submit(mode, directories.toArray(new File[0]));
+        } catch (RejectedExecutionException e) {
+            response.code(503).message("Too many backups are queued");
+            return;
+        }
+
+        if (!getBooleanFromBody(request, "wait")) {
+            response.code(202).json("job_id=" + job.getId());
+            return;
+        }
+
+        job.await();
 
-        response.message("Backup created");
+        if (job.getState() == BackupJobState.CANCELLED) {
+            response.code(409).message("The backup has been cancelled");
+        } else if (job.getState() == BackupJobState.FAILED) {
+            response.code(500).message("Could not create the backup: " + job.getError());
+        } else response.message("Backup created");
     }
 
     /**
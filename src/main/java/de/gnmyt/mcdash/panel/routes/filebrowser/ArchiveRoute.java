@@ -2,6 +2,7 @@ package de.gnmyt.mcdash.panel.routes.filebrowser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import org.apache.commons.io.FileUtils;
@@ -22,6 +23,11 @@ public class ArchiveRoute extends DefaultHandler {
         return "archive";
     }
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.LONG_RUNNING;
+    }
+
     /**
      * Creates a zip archive of selected files
      */
@@ -117,8 +123,7 @@ public class ArchiveRoute extends DefaultHandler {
     }
 
     private void extractZip(File zipFile, File destDir) throws Exception {
-        try (FileInputStream fis = new FileInputStream(zipFile);
-             org.apache.commons.compress.archivers.zip.ZipFile zf = new org.apache.commons.compress.archivers.zip.ZipFile(zipFile)) {
+        try (org.apache.commons.compress.archivers.zip.ZipFile zf = new org.apache.commons.compress.archivers.zip.ZipFile(zipFile)) {
             java.util.Enumeration<ZipArchiveEntry> entries = zf.getEntries();
             while (entries.hasMoreElements()) {
                 ZipArchiveEntry entry = entries.nextElement();
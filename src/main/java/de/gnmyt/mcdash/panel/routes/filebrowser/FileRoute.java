@@ -1,6 +1,7 @@
 package de.gnmyt.mcdash.panel.routes.filebrowser;
 
 import de.gnmyt.mcdash.api.handler.MultipartHandler;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import org.apache.commons.io.FileUtils;
@@ -12,14 +13,23 @@ import java.nio.charset.StandardCharsets;
 public class FileRoute extends MultipartHandler {
 
     private static final String SERVER_DIRECTORY = System.getProperty("user.dir");
+    private static final int DEFAULT_PREVIEW_SIZE = 64;
+    private static final int MAX_PREVIEW_SIZE = 4096;
 
     @Override
     public String path() {
         return "file";
     }
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.IO;
+    }
+
     /**
-     * Gets the content of a file in a directory
+     * Gets the content of a file in a directory.
+     * Use the <code>preview</code> query (<code>head</code> or <code>tail</code>) together with <code>size</code>
+     * (in kilobytes) to only get the beginning or the end of a large file
      * @param request The request object from the HttpExchange
      * @param response The response controller from the HttpExchange
      */
@@ -35,9 +45,24 @@ public class FileRoute extends MultipartHandler {
             return;
         }
 
+        String preview = getStringFromQuery(request, "preview");
+        if (preview != null) {
+            if (!preview.equals("head") && !preview.equals("tail")) {
+                response.code(400).message("The preview must be either head or tail");
+                return;
+            }
+
+            Integer size = getIntegerFromQuery(request, "size");
+            long bytes = (long) Math.max(1, Math.min(size != null ? size : DEFAULT_PREVIEW_SIZE, MAX_PREVIEW_SIZE)) * 1024;
+
+            response.header("Cache-Control", "no-cache")
+                    .fileRegion(file, preview.equals("head") ? 0 : file.length() - bytes, bytes);
+            return;
+        }
+
         response.header("Content-Disposition", "attachment; filename=" + file.getName());
 
-        response.bytes(FileUtils.readFileToByteArray(file));
+        response.file(file);
     }
 
     /**
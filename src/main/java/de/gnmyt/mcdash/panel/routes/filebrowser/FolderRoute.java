@@ -2,6 +2,7 @@ package de.gnmyt.mcdash.panel.routes.filebrowser;
 
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import de.gnmyt.mcdash.api.json.ArrayBuilder;
@@ -20,6 +21,11 @@ public class FolderRoute extends DefaultHandler {
         return "folder";
     }
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.IO;
+    }
+
     /**
      * Gets all files and folders from a specific directory
      * @param request The request object from the HttpExchange
@@ -23,7 +23,9 @@ public class SSHRoute extends DefaultHandler {
      */
     @Override
     public void get(Request request, ResponseController response) throws Exception {
-        response.json("enabled=" + sshManager.isSSHEnabled(), "port=" + sshManager.getSSHPort());
+        response.json("enabled=" + sshManager.isSSHEnabled(), "port=" + sshManager.getSSHPort(),
+                "sessions=" + sshManager.getController().getActiveSessions(),
+                "peakSessions=" + sshManager.getController().getPeakSessions());
     }
 
     /**
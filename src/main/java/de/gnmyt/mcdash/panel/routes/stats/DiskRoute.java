@@ -0,0 +1,81 @@
+package de.gnmyt.mcdash.panel.routes.stats;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.json.NodeBuilder;
+import de.gnmyt.mcdash.api.tasks.DiskUsageTracker;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class DiskRoute extends DefaultHandler {
+
+    private final DiskUsageTracker tracker = MinecraftDashboard.getDiskUsageTracker();
+
+    @Override
+    public String path() {
+        return "disk";
+    }
+
+    /**
+     * Gets the size of all top level folders of the server, grouped into worlds, plugins, backups, logs and other files
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) {
+        if (!tracker.isReady()) {
+            response.code(503).header("Retry-After", "5").message("The disk usage is still being calculated");
+            return;
+        }
+
+        String backupFolder = getTopLevelFolder(MinecraftDashboard.getBackupManager().getBackupPath());
+        ArrayBuilder folders = new ArrayBuilder();
+
+        for (Map.Entry<String, Long> folder : tracker.getFolderSizes().entrySet()) {
+            new NodeBuilder(folders)
+                    .add("name", folder.getKey().isEmpty() ? "." : folder.getKey())
+                    .add("category", getCategory(folder.getKey(), backupFolder))
+                    .add("size", folder.getValue())
+                    .register();
+        }
+
+        response.type(ContentType.JSON).text(folders.toJSON());
+    }
+
+    /**
+     * Gets the category of a top level folder
+     * @param folder The name of the folder
+     * @param backupFolder The name of the top level folder the backups are stored in
+     * @return the category of the folder
+     */
+    private String getCategory(String folder, String backupFolder) {
+        if (folder.isEmpty()) return "other";
+        if (folder.equals(backupFolder)) return "backups";
+        if (folder.equals("plugins")) return "plugins";
+        if (folder.equals("logs") || folder.equals("crash-reports")) return "logs";
+        if (new File(folder, "level.dat").isFile()) return "worlds";
+        return "other";
+    }
+
+    /**
+     * Gets the top level folder of a path inside the server folder
+     * @param path The path
+     * @return the name of the top level folder or <code>null</code> if the path is not inside the server folder
+     */
+    private String getTopLevelFolder(String path) {
+        if (path == null) return null;
+
+        Path root = new File(".").toPath().toAbsolutePath().normalize();
+        Path folder = new File(path).toPath().toAbsolutePath().normalize();
+
+        if (!folder.startsWith(root) || folder.equals(root)) return null;
+        return root.relativize(folder).getName(0).toString();
+    }
+
+}
@@ -0,0 +1,106 @@
+package de.gnmyt.mcdash.panel.routes.stats;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.MetricResolution;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.metrics.MetricRange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class HistoryRoute extends DefaultHandler {
+
+    private static final long DEFAULT_RANGE = TimeUnit.HOURS.toMillis(1);
+
+    @Override
+    public String path() {
+        return "history";
+    }
+
+    /**
+     * Gets the history of the server metrics in a time range.
+     * The range is given with <code>from</code> and <code>to</code> (milliseconds) and defaults to the last hour,
+     * the resolution (raw, minute or hour) gets chosen by the start of the range if it is not provided
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) {
+        Long to = getStringFromQuery(request, "to") != null ? getLongFromQuery(request, "to") : Long.valueOf(System.currentTimeMillis());
+        if (to == null) {
+            response.code(400).message("from and to must be timestamps in milliseconds");
+            return;
+        }
+
+        Long from = getStringFromQuery(request, "from") != null ? getLongFromQuery(request, "from") : Long.valueOf(to - DEFAULT_RANGE);
+        if (from == null) {
+            response.code(400).message("from and to must be timestamps in milliseconds");
+            return;
+        }
+
+        if (from > to) {
+            response.code(400).message("from must be before to");
+            return;
+        }
+
+        MetricResolution resolution = MinecraftDashboard.getMetricsStore().getResolution(from);
+        if (getStringFromQuery(request, "resolution") != null) {
+            resolution = MetricResolution.fromKey(getStringFromQuery(request, "resolution"));
+            if (resolution == null) {
+                response.code(400).message("The resolution must be raw, minute or hour");
+                return;
+            }
+        }
+
+        List<Metric> metrics = new ArrayList<>(Arrays.asList(Metric.values()));
+        if (getStringFromQuery(request, "metrics") != null) {
+            metrics.clear();
+            for (String key : getStringFromQuery(request, "metrics").split(",")) {
+                Metric metric = Metric.fromKey(key.trim());
+                if (metric == null) {
+                    response.code(400).messageFormat("The metric %s does not exist", key.trim());
+                    return;
+                }
+                metrics.add(metric);
+            }
+        }
+
+        MetricRange range = MinecraftDashboard.getMetricsStore().query(resolution, from, to);
+        ObjectNode history = new ArrayBuilder().getMapper().createObjectNode();
+
+        history.put("resolution", resolution.getKey());
+        history.put("interval", resolution.getInterval());
+
+        ArrayNode times = history.putArray("times");
+        for (long time : range.getTimes()) times.add(time);
+
+        ObjectNode values = history.putObject("metrics");
+        for (Metric metric : metrics) {
+            ObjectNode series = values.putObject(metric.getKey());
+            addValues(series.putArray("min"), range.getMin(metric));
+            addValues(series.putArray("avg"), range.getAvg(metric));
+            addValues(series.putArray("max"), range.getMax(metric));
+        }
+
+        response.type(ContentType.JSON).text(history.toString());
+    }
+
+    /**
+     * Adds all values to a json array
+     * @param array The json array
+     * @param values The values that should be added
+     */
+    private void addValues(ArrayNode array, float[] values) {
+        for (float value : values) array.add(value);
+    }
+
+}
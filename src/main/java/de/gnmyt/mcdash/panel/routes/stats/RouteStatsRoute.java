@@ -0,0 +1,76 @@
+package de.gnmyt.mcdash.panel.routes.stats;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.handler.RouteStats;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.HTTPMethod;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+
+import java.util.Map;
+
+public class RouteStatsRoute extends DefaultHandler {
+
+    @Override
+    public String path() {
+        return "routes";
+    }
+
+    /**
+     * Gets the request count, latency, status codes and transferred bytes of every api route and of its http methods
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) {
+        ArrayBuilder builder = new ArrayBuilder();
+        ArrayNode routes = builder.getMapper().createArrayNode();
+
+        for (Map.Entry<String, DefaultHandler> route : MinecraftDashboard.getRouteRegistry().getRoutes().entrySet()) {
+            ObjectNode node = routes.addObject();
+            node.put("path", route.getKey());
+
+            ArrayNode methods = node.putArray("methods");
+            route.getValue().getMethods().forEach(method -> methods.add(method.name()));
+
+            addStats(node, route.getValue().getStats());
+
+            ObjectNode methodStats = node.putObject("method_stats");
+            for (HTTPMethod method : HTTPMethod.values()) {
+                RouteStats stats = route.getValue().getStats(method);
+                if (stats.getRequests() > 0) addStats(methodStats.putObject(method.name()), stats);
+            }
+        }
+
+        response.type(ContentType.JSON).text(routes.toString());
+    }
+
+    /**
+     * Adds the statistics of a route or of a http method to a json object
+     * @param node The json object
+     * @param stats The statistics
+     */
+    private void addStats(ObjectNode node, RouteStats stats) {
+        node.put("requests", stats.getRequests());
+        node.put("errors", stats.getErrors());
+        node.put("average_time", stats.getAverageTime());
+        node.put("max_time", stats.getMaxTime());
+        node.put("average_queue_time", stats.getAverageQueueTime());
+        node.put("max_queue_time", stats.getMaxQueueTime());
+        node.put("bytes_in", stats.getBytesIn());
+        node.put("bytes_out", stats.getBytesOut());
+
+        ObjectNode statusCodes = node.putObject("status_codes");
+        stats.getStatusCodes().forEach((code, count) -> statusCodes.put(String.valueOf(code), count));
+
+        ObjectNode latency = node.putObject("latency");
+        for (int bucket = 0; bucket < stats.getLatencyBuckets(); bucket++)
+            latency.put(String.valueOf(stats.getLatencyBound(bucket)), stats.getLatencyCount(bucket));
+        latency.put("inf", stats.getLatencyCount(stats.getLatencyBuckets()));
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.gnmyt.mcdash.panel.routes.stats;
+
+import de.gnmyt.mcdash.MinecraftDashboard;
+import de.gnmyt.mcdash.api.entities.SlowRequest;
+import de.gnmyt.mcdash.api.handler.DefaultHandler;
+import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.Request;
+import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.json.NodeBuilder;
+
+public class SlowRequestRoute extends DefaultHandler {
+
+    @Override
+    public String path() {
+        return "slow-requests";
+    }
+
+    /**
+     * Gets the last api requests that took longer than the configured threshold
+     * @param request The request object from the HttpExchange
+     * @param response The response controller from the HttpExchange
+     */
+    @Override
+    public void get(Request request, ResponseController response) {
+        ArrayBuilder requests = new ArrayBuilder();
+
+        for (SlowRequest slowRequest : MinecraftDashboard.getSlowRequestLog().getRequests()) {
+            new NodeBuilder(requests)
+                    .add("time", slowRequest.getTime())
+                    .add("method", slowRequest.getMethod())
+                    .add("path", slowRequest.getPath())
+                    .add("username", slowRequest.getUsername())
+                    .add("status", slowRequest.getStatus())
+                    .add("queue_time", slowRequest.getQueueTime())
+                    .add("handler_time", slowRequest.getHandlerTime())
+                    .register();
+        }
+
+        response.type(ContentType.JSON).text(requests.toJSON());
+    }
+
+}
@@ -1,10 +1,15 @@
 package de.gnmyt.mcdash.panel.routes.stats;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import de.gnmyt.mcdash.MinecraftDashboard;
 import de.gnmyt.mcdash.api.controller.StatsController;
+import de.gnmyt.mcdash.api.entities.TickStats;
+import de.gnmyt.mcdash.api.entities.TickWindow;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
+import de.gnmyt.mcdash.api.json.ArrayBuilder;
+import de.gnmyt.mcdash.api.json.NodeBuilder;
 import org.bukkit.Bukkit;
 
 public class StatsRoute extends DefaultHandler {
@@ -12,15 +17,50 @@ public class StatsRoute extends DefaultHandler {
     private final StatsController STATS = new StatsController(MinecraftDashboard.getInstance());
 
     /**
-     * Gets the current server statistics such as the tps, processors, memory and the space
+     * Gets the current server statistics such as the tps, the tick times, processors, memory and the space
      * @param request The request object from the HttpExchange
      * @param response The response controller from the HttpExchange
      */
     @Override
     public void get(Request request, ResponseController response) {
-        response.json("tps="+STATS.getTPS(), "processors="+STATS.getAvailableProcessors(),
+        response.json("tps="+STATS.getTPS(), "mspt="+getTickTimes(), "processors="+STATS.getAvailableProcessors(),
                 "free_memory="+STATS.getFreeMemory(), "total_memory="+STATS.getTotalMemory(), "used_memory="+STATS.getUsedMemory(),
                 "free_space="+STATS.getFreeSpace(), "total_space="+STATS.getTotalSpace(), "used_space="+STATS.getUsedSpace(),
                 "max_players="+ Bukkit.getMaxPlayers(), "online_players="+Bukkit.getOnlinePlayers().size());
     }
+
+    /**
+     * Gets the tick times of all windows as a json object
+     * @return the tick times, keyed by the window
+     */
+    private String getTickTimes() {
+        ArrayBuilder builder = new ArrayBuilder();
+        ObjectNode windows = builder.getMapper().createObjectNode();
+
+        for (TickWindow window : TickWindow.values()) {
+            TickStats stats = STATS.getTickStats(window);
+
+            windows.set(window.getKey(), new NodeBuilder(builder)
+                    .add("tps", round(stats.getTps()))
+                    .add("mean", round(stats.getMean()))
+                    .add("p50", round(stats.getP50()))
+                    .add("p95", round(stats.getP95()))
+                    .add("p99", round(stats.getP99()))
+                    .add("max", round(stats.getMax()))
+                    .add("ticks", stats.getTicks())
+                    .add("slow_ticks", stats.getSlowTicks())
+                    .getNode());
+        }
+
+        return windows.toString();
+    }
+
+    /**
+     * Rounds a value to two decimal places
+     * @param value The value that should be rounded
+     * @return the rounded value
+     */
+    private double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import de.gnmyt.mcdash.api.json.ArrayBuilder;
@@ -42,6 +43,11 @@ public class StoreRoute extends DefaultHandler {
         "Ledger", "Purpur", "Foliar", "ClothConfig", "Hydrogen"
     };
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.LONG_RUNNING;
+    }
+
     @Override
     public void get(Request request, ResponseController response) throws Exception {
         String query = request.getQuery().containsKey("query") ? getStringFromQuery(request, "query") : "";
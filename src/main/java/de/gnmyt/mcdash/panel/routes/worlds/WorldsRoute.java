@@ -3,6 +3,7 @@ package de.gnmyt.mcdash.panel.routes.worlds;
 import de.gnmyt.mcdash.MinecraftDashboard;
 import de.gnmyt.mcdash.api.handler.DefaultHandler;
 import de.gnmyt.mcdash.api.http.ContentType;
+import de.gnmyt.mcdash.api.http.ExecutionClass;
 import de.gnmyt.mcdash.api.http.Request;
 import de.gnmyt.mcdash.api.http.ResponseController;
 import de.gnmyt.mcdash.api.json.ArrayBuilder;
@@ -16,6 +17,11 @@ import java.io.File;
 
 public class WorldsRoute extends DefaultHandler {
 
+    @Override
+    public ExecutionClass executionClass() {
+        return ExecutionClass.LONG_RUNNING;
+    }
+
     /**
      * Gets all worlds
      * @param request The request object from the HttpExchange
@@ -0,0 +1,105 @@
+package de.gnmyt.mcdash.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Writes the index of all api routes while the plugin gets compiled,
+ * so the routes can be registered without scanning the classpath
+ */
+public class RouteIndexProcessor extends AbstractProcessor {
+
+    public static final String INDEX_FILE = "META-INF/mcdash-routes.idx";
+
+    private static final String HANDLER_CLASS = "de.gnmyt.mcdash.api.handler.DefaultHandler";
+    private static final String ROUTE_PACKAGE = "de.gnmyt.mcdash.panel.routes";
+
+    private final Set<String> routes = new TreeSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * Collects all routes of the current round and writes the index after the last round
+     * @param annotations The annotations of the round (not used, every class gets checked)
+     * @param roundEnv The environment of the current round
+     * @return <code>false</code>, so other processors still see all annotations
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement handler = processingEnv.getElementUtils().getTypeElement(HANDLER_CLASS);
+
+        if (handler != null) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+                if (isRoute(type, handler.asType())) routes.add(type.getQualifiedName().toString());
+            }
+        }
+
+        if (roundEnv.processingOver()) writeIndex();
+        return false;
+    }
+
+    /**
+     * Checks if a class is a route that can be registered
+     * @param type The class that should be checked
+     * @param handler The type of the {@link de.gnmyt.mcdash.api.handler.DefaultHandler}
+     * @return <code>true</code> if the class is a public, non-abstract handler in the route package, otherwise <code>false</code>
+     */
+    private boolean isRoute(TypeElement type, TypeMirror handler) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getModifiers().contains(Modifier.PUBLIC)) return false;
+
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        if (!packageName.equals(ROUTE_PACKAGE) && !packageName.startsWith(ROUTE_PACKAGE + ".")) return false;
+
+        if (!processingEnv.getTypeUtils().isAssignable(type.asType(), handler)) return false;
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) return true;
+        }
+
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                "The route has no public constructor without parameters and will not be registered", type);
+        return false;
+    }
+
+    /**
+     * Writes the names of all collected routes into the index file
+     */
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_FILE);
+
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String route : routes) writer.write(route + "\n");
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write the route index: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,87 @@
+package de.gnmyt.mcdash.api.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BackupRestorerTest {
+
+    @TempDir
+    Path temp;
+
+    @Test
+    void entriesOutsideOfTheServerFolderAreRejected() throws IOException {
+        Path root = Files.createDirectories(temp.resolve("server"));
+        write(root.resolve("server.properties"), "old");
+
+        for (String name : new String[]{"../evil.txt", "world/../../evil.txt", temp.resolve("evil.txt").toString()}) {
+            File backup = zip(name, "evil");
+
+            assertThrows(IOException.class, () -> restorer(root).restoreZip(backup), name);
+            assertFalse(Files.exists(temp.resolve("evil.txt")), name);
+            assertFalse(Files.exists(root.resolve("evil.txt")), name);
+            assertEquals("old", read(root.resolve("server.properties")), name);
+        }
+    }
+
+    @Test
+    void backupFolderIsNotReplaced() throws IOException {
+        Path root = Files.createDirectories(temp.resolve("server"));
+        write(root.resolve("plugins/MCDash/backups/1700000000000-1.zip"), "backup");
+        write(root.resolve("plugins/MCDash/config.yml"), "old");
+        write(root.resolve("plugins/Other/old.yml"), "old");
+
+        File backup = zip("plugins/MCDash/config.yml", "new", "plugins/Other/new.yml", "new",
+                "plugins/MCDash/backups/1700000000000-1.zip", "replaced");
+        restorer(root).restoreZip(backup);
+
+        assertEquals("backup", read(root.resolve("plugins/MCDash/backups/1700000000000-1.zip")));
+        assertEquals("new", read(root.resolve("plugins/MCDash/config.yml")));
+        assertEquals("new", read(root.resolve("plugins/Other/new.yml")));
+        assertFalse(Files.exists(root.resolve("plugins/Other/old.yml")));
+    }
+
+    private BackupRestorer restorer(Path root) {
+        return new BackupRestorer(root.toFile(), root.resolve("plugins/MCDash/backups").toFile(), null, 2,
+                Logger.getLogger(BackupRestorerTest.class.getName()));
+    }
+
+    private File zip(String... entries) throws IOException {
+        Path zip = Files.createTempFile(temp, "backup", ".zip");
+
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(zip))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                outputStream.putNextEntry(new ZipEntry(entries[i]));
+                outputStream.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                outputStream.closeEntry();
+            }
+        }
+
+        return zip.toFile();
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,74 @@
+package de.gnmyt.mcdash.api.backup;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ChangeManifestTest {
+
+    @TempDir
+    File backupFolder;
+
+    @Test
+    void savedEntriesCanBeLoadedAgain() throws IOException {
+        File file = new File(backupFolder, "manifest.dat");
+        Files.createFile(new File(backupFolder, "1700000000000-1.zip").toPath());
+
+        ChangeManifest manifest = new ChangeManifest(file, backupFolder);
+        manifest.update("world/region/r.0.0.mca", new ManifestEntry(4096, 1234, 42, "1700000000000-1.zip"));
+        manifest.update("plugins/Essentials/config.yml", new ManifestEntry(12, 5678, 7, "1700000000000-1.zip"));
+        manifest.save();
+
+        ChangeManifest loaded = new ChangeManifest(file, backupFolder);
+
+        ManifestEntry region = loaded.getUnchanged(entry("world/region/r.0.0.mca", 4096, 1234));
+        assertNotNull(region);
+        assertEquals(42, region.getCrc());
+        assertEquals("1700000000000-1.zip", region.getSource());
+        assertNotNull(loaded.getUnchanged(entry("plugins/Essentials/config.yml", 12, 5678)));
+    }
+
+    @Test
+    void changedFilesAreNotReused() throws IOException {
+        Files.createFile(new File(backupFolder, "1700000000000-1.zip").toPath());
+
+        ChangeManifest manifest = new ChangeManifest(new File(backupFolder, "manifest.dat"), backupFolder);
+        manifest.update("level.dat", new ManifestEntry(100, 1000, 1, "1700000000000-1.zip"));
+
+        assertNull(manifest.getUnchanged(entry("level.dat", 101, 1000)));
+        assertNull(manifest.getUnchanged(entry("level.dat", 100, 1001)));
+        assertNull(manifest.getUnchanged(entry("unknown.dat", 100, 1000)));
+    }
+
+    @Test
+    void filesOfDeletedBackupsAreNotReused() {
+        ChangeManifest manifest = new ChangeManifest(new File(backupFolder, "manifest.dat"), backupFolder);
+        manifest.update("level.dat", new ManifestEntry(100, 1000, 1, "1700000000000-1.zip"));
+
+        assertNull(manifest.getUnchanged(entry("level.dat", 100, 1000)));
+    }
+
+    @Test
+    void corruptedManifestIsIgnored() throws IOException {
+        File file = new File(backupFolder, "manifest.dat");
+        Files.write(file.toPath(), "not a manifest".getBytes(StandardCharsets.UTF_8));
+        Files.createFile(new File(backupFolder, "1700000000000-1.zip").toPath());
+
+        ChangeManifest manifest = new ChangeManifest(file, backupFolder);
+
+        assertNull(manifest.getUnchanged(entry("level.dat", 100, 1000)));
+    }
+
+    private BackupEntry entry(String name, long size, long lastModified) {
+        return new BackupEntry(name, new File(backupFolder, name).toPath(), size, lastModified);
+    }
+
+}
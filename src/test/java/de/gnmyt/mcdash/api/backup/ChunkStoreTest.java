@@ -0,0 +1,82 @@
+package de.gnmyt.mcdash.api.backup;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkStoreTest {
+
+    @TempDir
+    File root;
+
+    @Test
+    void storedChunksCanBeReadAgain() throws IOException, NoSuchAlgorithmException {
+        ChunkStore store = new ChunkStore(root, 6);
+        byte[] data = "some region data".getBytes(StandardCharsets.UTF_8);
+
+        String hash = store.put(data, data.length);
+
+        assertEquals(ChunkStore.toHex(MessageDigest.getInstance("SHA-256").digest(data)), hash);
+        assertArrayEquals(data, read(store, hash));
+        assertTrue(store.getSize(hash) > 0);
+    }
+
+    @Test
+    void equalChunksAreOnlyStoredOnce() throws IOException {
+        ChunkStore store = new ChunkStore(root, 6);
+        byte[] data = "the same chunk".getBytes(StandardCharsets.UTF_8);
+        byte[] buffer = Arrays.copyOf(data, data.length + 32);
+
+        String first = store.put(data, data.length);
+        String second = store.put(buffer, data.length);
+        String other = store.put(buffer, buffer.length);
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, countChunks());
+    }
+
+    @Test
+    void onlyUnreferencedChunksAreDeleted() throws IOException {
+        ChunkStore store = new ChunkStore(root, 6);
+        String kept = store.put(new byte[]{1, 2, 3}, 3);
+        String deleted = store.put(new byte[]{4, 5, 6}, 3);
+
+        assertEquals(1, store.deleteUnreferenced(new HashSet<>(Collections.singletonList(kept))));
+
+        assertEquals(1, countChunks());
+        assertArrayEquals(new byte[]{1, 2, 3}, read(store, kept));
+        assertEquals(0, store.getSize(deleted));
+    }
+
+    private byte[] read(ChunkStore store, String hash) throws IOException {
+        try (InputStream inputStream = store.open(hash)) {
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+    private long countChunks() throws IOException {
+        try (Stream<Path> files = Files.walk(root.toPath())) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package de.gnmyt.mcdash.api.backup;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetentionPolicyTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Test
+    void keepLastIsAppliedPerCombinationOfModes() {
+        List<BackupInfo> backups = new ArrayList<>();
+        for (int i = 0; i < 5; i++) backups.add(backup(START.plusMinutes(i), "12", 10));
+        backups.add(backup(START.minusDays(10), "3", 10));
+        backups.add(backup(START.minusDays(9), "3", 10));
+
+        List<BackupInfo> removed = policy(2, 0, 0).select(backups, backup -> Collections.emptyList(), chunk -> 0);
+
+        assertEquals(ids(backups.get(2), backups.get(1), backups.get(0)), ids(removed));
+    }
+
+    @Test
+    void dailyRuleKeepsTheNewestBackupOfEveryDay() {
+        BackupInfo dayOneMorning = backup(START.withHour(6), "1", 10);
+        BackupInfo dayOneEvening = backup(START.withHour(20), "1", 10);
+        BackupInfo dayTwo = backup(START.plusDays(1), "1", 10);
+        BackupInfo dayThreeMorning = backup(START.plusDays(2).withHour(1), "1", 10);
+        BackupInfo dayThreeEvening = backup(START.plusDays(2).withHour(23), "1", 10);
+
+        List<BackupInfo> removed = policy(0, 2, 0).select(Arrays.asList(dayOneMorning, dayOneEvening, dayTwo,
+                dayThreeMorning, dayThreeEvening), backup -> Collections.emptyList(), chunk -> 0);
+
+        assertEquals(ids(dayThreeMorning, dayOneEvening, dayOneMorning), ids(removed));
+    }
+
+    @Test
+    void maxSizeRemovesTheOldestBackupsButNeverTheNewest() {
+        BackupInfo oldest = backup(START, "1", 40);
+        BackupInfo middle = backup(START.plusHours(1), "1", 40);
+        BackupInfo newest = backup(START.plusHours(2), "1", 500);
+
+        List<BackupInfo> removed = policy(0, 0, 100).select(Arrays.asList(oldest, middle, newest),
+                backup -> Collections.emptyList(), chunk -> 0);
+
+        assertEquals(ids(middle, oldest), ids(removed));
+    }
+
+    @Test
+    void sharedChunksOfSnapshotsAreOnlyCountedOnce() {
+        BackupInfo older = backup(START, "1", 1);
+        BackupInfo newer = backup(START.plusHours(1), "1", 1);
+
+        Map<BackupInfo, Collection<String>> chunks = new HashMap<>();
+        chunks.put(older, Arrays.asList("a", "b", "c"));
+        chunks.put(newer, Arrays.asList("a", "b", "d"));
+
+        assertTrue(policy(0, 0, 42).select(Arrays.asList(older, newer), chunks::get, chunk -> 10).isEmpty());
+        assertEquals(ids(older), ids(policy(0, 0, 41).select(Arrays.asList(older, newer), chunks::get, chunk -> 10)));
+    }
+
+    @Test
+    void policyWithoutRulesKeepsEverything() {
+        RetentionPolicy policy = policy(0, 0, 0);
+        List<BackupInfo> backups = Arrays.asList(backup(START, "1", 10), backup(START.plusDays(1), "1", 10));
+
+        assertFalse(policy.isEnabled());
+        assertTrue(policy.select(backups, backup -> Collections.emptyList(), chunk -> 0).isEmpty());
+    }
+
+    private static RetentionPolicy policy(int keepLast, int daily, long maxSize) {
+        return new RetentionPolicy(keepLast, 0, daily, 0, 0, maxSize, ZoneOffset.UTC);
+    }
+
+    private static BackupInfo backup(LocalDateTime time, String modes, long length) {
+        return new BackupInfo(new File(time.toInstant(ZoneOffset.UTC).toEpochMilli() + "-" + modes + ".zip"), length, 0, length, null);
+    }
+
+    private static List<String> ids(BackupInfo... backups) {
+        return ids(Arrays.asList(backups));
+    }
+
+    private static List<String> ids(List<BackupInfo> backups) {
+        return backups.stream().map(BackupInfo::getId).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,96 @@
+package de.gnmyt.mcdash.api.controller;
+
+import de.gnmyt.mcdash.api.config.AccountManager;
+import de.gnmyt.mcdash.api.config.ConfigurationManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionControllerTest {
+
+    private AccountManager accountManager;
+    private ConfigurationManager config;
+    private SessionController controller;
+
+    @BeforeEach
+    void setUp() {
+        accountManager = mock(AccountManager.class);
+        config = mock(ConfigurationManager.class);
+
+        when(accountManager.accountExists("steve")).thenReturn(true);
+        when(accountManager.getPasswordHash("steve")).thenReturn("$2a$10$hash");
+        when(config.hasDefaultCredentials()).thenReturn(true);
+        when(config.getDefaultUsername()).thenReturn("admin");
+        when(config.getDefaultPassword()).thenReturn("admin");
+        when(config.getSessionLifetime()).thenReturn(60);
+
+        controller = new SessionController(accountManager, config);
+    }
+
+    @Test
+    void createdTokensAreValid() {
+        assertEquals("steve", controller.validateToken(controller.createToken("steve")));
+        assertEquals("admin", controller.validateToken(controller.createToken("admin")));
+    }
+
+    @Test
+    void expiredTokensAreRejected() {
+        when(config.getSessionLifetime()).thenReturn(-1);
+
+        assertNull(controller.validateToken(controller.createToken("steve")));
+    }
+
+    @Test
+    void revokedTokensAreRejected() {
+        String revoked = controller.createToken("steve");
+        when(config.getSessionLifetime()).thenReturn(61);
+        String other = controller.createToken("steve");
+
+        controller.revokeToken(revoked);
+
+        assertNull(controller.validateToken(revoked));
+        assertEquals("steve", controller.validateToken(other));
+    }
+
+    @Test
+    void tokensBecomeInvalidWhenThePasswordChanges() {
+        String token = controller.createToken("steve");
+        when(accountManager.getPasswordHash("steve")).thenReturn("$2a$10$other");
+
+        assertNull(controller.validateToken(token));
+    }
+
+    @Test
+    void tokensOfAnotherControllerAreRejected() {
+        String token = new SessionController(accountManager, config).createToken("steve");
+
+        assertNull(controller.validateToken(token));
+    }
+
+    @Test
+    void modifiedTokensAreRejected() {
+        String token = controller.createToken("steve");
+        String[] parts = token.split("\\.");
+
+        String extended = parts[0] + "." + (Long.parseLong(parts[1]) + 1) + "." + parts[2];
+        String otherUser = controller.createToken("admin").split("\\.")[0] + "." + parts[1] + "." + parts[2];
+
+        assertNotEquals(token, extended);
+        assertNull(controller.validateToken(extended));
+        assertNull(controller.validateToken(otherUser));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertNull(controller.validateToken(""));
+        assertNull(controller.validateToken("abc"));
+        assertNull(controller.validateToken("a.b.c"));
+        assertNull(controller.validateToken("c3RldmU.123.%%%"));
+    }
+
+}
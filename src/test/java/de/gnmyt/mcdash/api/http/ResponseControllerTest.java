@@ -0,0 +1,140 @@
+package de.gnmyt.mcdash.api.http;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResponseControllerTest {
+
+    private static final int LENGTH = 1000;
+
+    @TempDir
+    static File folder;
+
+    private static HttpServer server;
+    private static byte[] content;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        content = new byte[LENGTH];
+        for (int i = 0; i < LENGTH; i++) content[i] = (byte) i;
+
+        File file = new File(folder, "backup.zip");
+        Files.write(file.toPath(), content);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/file", exchange -> new ResponseController(exchange).file(file));
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void fileWithoutRangeIsSentCompletely() throws IOException {
+        HttpURLConnection connection = open("GET", null, null);
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("bytes", connection.getHeaderField("Accept-Ranges"));
+        assertArrayEquals(content, body(connection));
+    }
+
+    @Test
+    void rangesAreSentPartially() throws IOException {
+        assertRange("bytes=10-19", 10, 19);
+        assertRange("bytes=990-", 990, 999);
+        assertRange("bytes=-100", 900, 999);
+        assertRange("bytes=995-5000", 995, 999);
+    }
+
+    @Test
+    void unsatisfiableRangesAreRejected() throws IOException {
+        for (String range : new String[]{"bytes=1000-", "bytes=20-10", "bytes=-0", "bytes=abc"}) {
+            HttpURLConnection connection = open("GET", range, null);
+
+            assertEquals(416, connection.getResponseCode(), range);
+            assertEquals("bytes */" + LENGTH, connection.getHeaderField("Content-Range"), range);
+        }
+    }
+
+    @Test
+    void multipleRangesAreIgnored() throws IOException {
+        HttpURLConnection connection = open("GET", "bytes=0-1,5-6", null);
+
+        assertEquals(200, connection.getResponseCode());
+        assertArrayEquals(content, body(connection));
+    }
+
+    @Test
+    void ifRangeOnlyAppliesToTheCurrentVersion() throws IOException {
+        String eTag = open("GET", null, null).getHeaderField("ETag");
+        String lastModified = open("GET", null, null).getHeaderField("Last-Modified");
+
+        assertEquals(206, open("GET", "bytes=10-19", eTag).getResponseCode());
+        assertEquals(206, open("GET", "bytes=10-19", lastModified).getResponseCode());
+
+        HttpURLConnection outdated = open("GET", "bytes=10-19", "\"outdated\"");
+        assertEquals(200, outdated.getResponseCode());
+        assertArrayEquals(content, body(outdated));
+    }
+
+    @Test
+    void currentVersionIsNotSentAgain() throws IOException {
+        String eTag = open("GET", null, null).getHeaderField("ETag");
+
+        HttpURLConnection connection = open("GET", null, null);
+        connection.setRequestProperty("If-None-Match", eTag);
+
+        assertEquals(304, connection.getResponseCode());
+    }
+
+    @Test
+    void headRequestsOnlyGetTheHeaders() throws IOException {
+        HttpURLConnection connection = open("HEAD", null, null);
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals(String.valueOf(LENGTH), connection.getHeaderField("Content-Length"));
+    }
+
+    private void assertRange(String range, int first, int last) throws IOException {
+        HttpURLConnection connection = open("GET", range, null);
+
+        assertEquals(206, connection.getResponseCode(), range);
+        assertEquals("bytes " + first + "-" + last + "/" + LENGTH, connection.getHeaderField("Content-Range"), range);
+        assertArrayEquals(Arrays.copyOfRange(content, first, last + 1), body(connection), range);
+    }
+
+    private HttpURLConnection open(String method, String range, String ifRange) throws IOException {
+        URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), "/file");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        if (range != null) connection.setRequestProperty("Range", range);
+        if (ifRange != null) connection.setRequestProperty("If-Range", ifRange);
+        return connection;
+    }
+
+    private byte[] body(HttpURLConnection connection) throws IOException {
+        try (InputStream inputStream = connection.getInputStream()) {
+            return IOUtils.toByteArray(inputStream);
+        }
+    }
+
+}
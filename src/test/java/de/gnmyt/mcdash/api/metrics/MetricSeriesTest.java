@@ -0,0 +1,90 @@
+package de.gnmyt.mcdash.api.metrics;
+
+import de.gnmyt.mcdash.api.entities.Metric;
+import de.gnmyt.mcdash.api.entities.MetricResolution;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MetricSeriesTest {
+
+    private static final int METRICS = Metric.values().length;
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    @Test
+    void rawSeriesOverwritesTheOldestPoints() {
+        MetricSeries series = new MetricSeries(MetricResolution.RAW, METRICS);
+        int capacity = MetricResolution.RAW.getCapacity();
+
+        for (int i = 0; i < capacity + 80; i++) series.record(i * 5000L, values(i));
+
+        MetricRange range = series.query(0, Long.MAX_VALUE);
+        assertEquals(capacity, range.getTimes().length);
+        assertEquals(80 * 5000L, range.getTimes()[0]);
+        assertEquals((capacity + 79) * 5000L, range.getTimes()[capacity - 1]);
+        assertEquals(80, range.getAvg(Metric.TPS)[0]);
+    }
+
+    @Test
+    void queryOnlyReturnsPointsInTheRange() {
+        MetricSeries series = new MetricSeries(MetricResolution.RAW, METRICS);
+        for (int i = 0; i < 10; i++) series.record(i * 5000L, values(i));
+
+        assertArrayEquals(new long[]{10000, 15000, 20000}, series.query(10000, 20000).getTimes());
+    }
+
+    @Test
+    void samplesOfAnIntervalAreRolledUpWhenTheNextIntervalStarts() {
+        MetricSeries series = new MetricSeries(MetricResolution.MINUTE, METRICS);
+        series.record(MINUTE + 1000, values(1));
+        series.record(MINUTE + 20000, values(2));
+        series.record(MINUTE + 40000, values(6));
+
+        assertEquals(0, series.query(0, Long.MAX_VALUE).getTimes().length);
+
+        series.record(2 * MINUTE, values(4));
+
+        MetricRange range = series.query(0, Long.MAX_VALUE);
+        assertArrayEquals(new long[]{MINUTE}, range.getTimes());
+        assertEquals(1, range.getMin(Metric.TPS)[0]);
+        assertEquals(3, range.getAvg(Metric.TPS)[0]);
+        assertEquals(6, range.getMax(Metric.TPS)[0]);
+    }
+
+    @Test
+    void writtenSeriesCanBeReadAgain() throws IOException {
+        MetricSeries series = new MetricSeries(MetricResolution.MINUTE, METRICS);
+        series.record(0, values(2));
+        series.record(MINUTE, values(4));
+        series.record(MINUTE + 1000, values(8));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        series.write(new DataOutputStream(bytes));
+
+        MetricSeries copy = new MetricSeries(MetricResolution.MINUTE, METRICS);
+        copy.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        copy.record(2 * MINUTE, values(0));
+
+        MetricRange range = copy.query(0, Long.MAX_VALUE);
+        assertArrayEquals(new long[]{0, MINUTE}, range.getTimes());
+        assertEquals(2, range.getAvg(Metric.TPS)[0]);
+        assertEquals(4, range.getMin(Metric.TPS)[1]);
+        assertEquals(6, range.getAvg(Metric.TPS)[1]);
+        assertEquals(8, range.getMax(Metric.TPS)[1]);
+    }
+
+    private static float[] values(float value) {
+        float[] values = new float[METRICS];
+        for (int i = 0; i < METRICS; i++) values[i] = value;
+        return values;
+    }
+
+}
@@ -0,0 +1,43 @@
+package de.gnmyt.mcdash.api.tasks;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TickProfilerTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket() {
+        for (int micros = 0; micros < 64; micros++) {
+            assertEquals(micros, TickProfiler.getBucket(micros));
+            assertEquals(micros, TickProfiler.getBucketValue(micros));
+        }
+    }
+
+    @Test
+    void bucketValueIsCloseToTheRecordedValue() {
+        for (long micros = 64; micros < (1L << 26); micros = micros * 21 / 20 + 1) {
+            double value = TickProfiler.getBucketValue(TickProfiler.getBucket(micros));
+            assertTrue(Math.abs(value - micros) / micros <= 0.035, "bucket value " + value + " for " + micros);
+        }
+    }
+
+    @Test
+    void bucketsAreSortedByValue() {
+        int previous = -1;
+        for (long micros = 0; micros < (1L << 26); micros += 997) {
+            int bucket = TickProfiler.getBucket(micros);
+            assertTrue(bucket >= previous, "bucket of " + micros + " is lower than the bucket of a smaller value");
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void valuesOutsideOfTheRangeAreClamped() {
+        assertEquals(0, TickProfiler.getBucket(-5));
+        assertEquals(TickProfiler.getBucket((1L << 26) - 1), TickProfiler.getBucket(Long.MAX_VALUE));
+        assertEquals(703, TickProfiler.getBucket(Long.MAX_VALUE));
+    }
+
+}
@@ -16,6 +16,33 @@ export const request = async (path, method = "GET", body = {}, headers = {}, abo
     });
 }
 
+// Open a server-sent event stream and call the handler for every received event
+export const streamRequest = async (path, onEvent, signal) => {
+    const response = await fetch("/api/" + path, {headers: getHeaders(), signal});
+    if (!response.ok || !response.body) throw new Error("The stream is not available");
+
+    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+    let buffer = "";
+
+    while (true) {
+        const {value, done} = await reader.read();
+        if (done) break;
+        buffer += value;
+
+        let index;
+        while ((index = buffer.indexOf("\n\n")) !== -1) {
+            const event = {};
+            buffer.substring(0, index).split("\n").forEach((field) => {
+                if (field.startsWith("id: ")) event.id = field.substring(4);
+                if (field.startsWith("data: ")) event.data = field.substring(6);
+            });
+            buffer = buffer.substring(index + 2);
+
+            if (event.data !== undefined) onEvent(event);
+        }
+    }
+}
+
 // Run a GET request and get the json of the response
 export const jsonRequest = async (path, headers = {}) => {
     return (await request(path, "GET", null, headers)).json();
@@ -12,7 +12,7 @@ import {
     Stack
 } from "@mui/material";
 import React, {useContext, useEffect, useState} from "react";
-import {request} from "@/common/utils/RequestUtil.js";
+import {jsonRequest, request} from "@/common/utils/RequestUtil.js";
 import {BackupContext} from "@/states/Root/pages/Backups/contexts/Backups";
 import {t} from "i18next";
 
@@ -21,7 +21,7 @@ export const BackupCreationDialog = ({open, setOpen, setLoading, currentModes =
     const {updateBackups} = useContext(BackupContext);
 
     const [modes, setModes] = useState([]);
-    const [finished, setFinished] = useState(false);
+    const [finished, setFinished] = useState(null);
 
     const toggleMode = (mode) => {
         if (!modes.includes(mode)) {
@@ -32,15 +32,27 @@ export const BackupCreationDialog = ({open, setOpen, setLoading, currentModes =
         }
     }
 
+    const finishJob = (state) => {
+        setFinished(state);
+        setLoading(false);
+        updateBackups();
+    }
+
+    const awaitJob = (jobId) => {
+        jsonRequest("backups/jobs?job_id=" + jobId).then(job => {
+            if (job.state === "queued" || job.state === "running") return setTimeout(() => awaitJob(jobId), 1000);
+            finishJob(job.state);
+        }).catch(() => finishJob("failed"));
+    }
+
     const executeAction = () => {
         if (modes.length === 0) return;
         setOpen(false);
         setLoading(true);
-        request("backups/", "PUT", {mode: modes.join("")}, {}, false).then(() => {
-            setFinished(true);
-            setLoading(false);
-            updateBackups();
-        });
+        request("backups/", "PUT", {mode: modes.join("")}).then(async response => {
+            if (!response.ok) return finishJob("failed");
+            awaitJob((await response.json()).job_id);
+        }).catch(() => finishJob("failed"));
     }
 
     useEffect(() => {
@@ -49,10 +61,11 @@ export const BackupCreationDialog = ({open, setOpen, setLoading, currentModes =
 
     return (
         <>
-            <Snackbar open={finished} autoHideDuration={5000} onClose={() => setFinished(false)}
+            <Snackbar open={finished !== null} autoHideDuration={5000} onClose={() => setFinished(null)}
                       anchorOrigin={{vertical: "bottom", horizontal: "right"}}>
-                <Alert onClose={() => setFinished(false)} severity="success" sx={{width: '100%'}}>
-                    {t("backup.created")}
+                <Alert onClose={() => setFinished(null)} severity={finished === "completed" ? "success" : "error"}
+                       sx={{width: '100%'}}>
+                    {finished === "completed" ? t("backup.created") : t("backup.failed")}
                 </Alert>
             </Snackbar>
 
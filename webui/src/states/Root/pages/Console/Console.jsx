@@ -1,4 +1,4 @@
-import {dispatchCommand, request} from "@/common/utils/RequestUtil";
+import {dispatchCommand, request, streamRequest} from "@/common/utils/RequestUtil";
 import React, {useEffect, useRef, useState} from "react";
 import {Terminal} from "xterm";
 import {FitAddon} from "xterm-addon-fit";
@@ -10,6 +10,8 @@ import {Replay, Send} from "@mui/icons-material";
 import {t} from "i18next";
 import ActionConfirmDialog from "@components/ActionConfirmDialog";
 
+const MAX_STREAM_FAILURES = 5;
+
 export const Console = () => {
     const theme = useTheme();
     const [consoleHistory, setConsoleHistory] = useState(JSON.parse(localStorage.getItem("consoleHistory")) || []);
@@ -71,6 +73,21 @@ export const Console = () => {
         terminal.open(terminalRef.current);
         fitAddon.fit();
 
+        const writeLine = (line) => {
+            const logLevelRegex = /\[(\d{2}:\d{2}:\d{2})] \[.*?\/(INFO|WARN(ING)?|ERROR)]: /;
+
+            line = line.replace(logLevelRegex, (match, time, level) => {
+                let colorCode = '\x1b[0m';
+                if (level === 'INFO') colorCode = '\x1b[34m';
+                else if (level === 'WARN' || level === 'WARNING') colorCode = '\x1b[33m';
+                else if (level === 'ERROR') colorCode = '\x1b[31m';
+
+                return `[${time}] [${colorCode}${level}\x1b[0m]: ${colorCode === '\x1b[34m' ? '' : colorCode}`;
+            });
+
+            terminal.writeln(line + '\x1b[0m');
+        }
+
         const updateConsole = () => {
             request("console/?startLine=" + currentLine).then(async (r) => {
                 const lines = (await r.text()).split("\n");
@@ -79,34 +96,45 @@ export const Console = () => {
 
                 if (currentLine === 0 && lines.length >= 100) lines.splice(0, lines.length - 100);
 
-                lines.forEach((line) => {
-                    const logLevelRegex = /\[(\d{2}:\d{2}:\d{2})] \[.*?\/(INFO|WARN(ING)?|ERROR)]: /;
-
-                    line = line.replace(logLevelRegex, (match, time, level) => {
-                        let colorCode = '\x1b[0m';
-                        if (level === 'INFO') colorCode = '\x1b[34m';
-                        else if (level === 'WARN' || level === 'WARNING') colorCode = '\x1b[33m';
-                        else if (level === 'ERROR') colorCode = '\x1b[31m';
-
-                        return `[${time}] [${colorCode}${level}\x1b[0m]: ${colorCode === '\x1b[34m' ? '' : colorCode}`;
-                    });
-
-                    terminal.writeln(line + '\x1b[0m');
-                });
+                lines.forEach(writeLine);
 
                 currentLine += lineAmount;
             });
         };
 
-        const interval = setInterval(() => {
-            updateConsole();
-        }, 2000);
+        let interval;
+        let reconnectTimeout;
+        let failures = 0;
+        const streamController = new AbortController();
+
+        // Reconnects with a growing delay whenever the stream ends and resumes after the last received line.
+        // Only falls back to polling if the stream keeps failing
+        const connect = () => {
+            streamRequest("console/stream?startLine=" + currentLine, (event) => {
+                writeLine(event.data);
+                currentLine = Number(event.id) + 1;
+                failures = 0;
+            }, streamController.signal).catch(() => {
+            }).finally(() => {
+                if (streamController.signal.aborted) return;
+
+                if (++failures > MAX_STREAM_FAILURES) {
+                    interval = setInterval(() => updateConsole(), 2000);
+                    updateConsole();
+                    return;
+                }
+
+                reconnectTimeout = setTimeout(connect, Math.min(1000 * 2 ** (failures - 1), 30000));
+            });
+        };
 
-        updateConsole();
+        connect();
 
         return () => {
             terminal.dispose();
             window.removeEventListener("resize", resize);
+            streamController.abort();
+            clearTimeout(reconnectTimeout);
             clearInterval(interval);
         };
     }, [theme]);